@@ -0,0 +1,70 @@
+package com.cryptic.userservice.benchmarks;
+
+import com.cryptic.userservice.config.ApplicationConfig;
+import com.cryptic.userservice.dto.response.AuthResponse;
+import com.cryptic.userservice.entity.User;
+import com.cryptic.userservice.security.JwtUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the AuthResponse returned by AuthService and serializing it
+ * with the ObjectMapper from ApplicationConfig
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthResponseBenchmark {
+
+    private ObjectMapper objectMapper;
+    private User user;
+    private String accessToken;
+    private String refreshToken;
+    private AuthResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ApplicationConfig().objectMapper();
+        user = BenchmarkFixtures.user();
+        JwtUtil jwtUtil = BenchmarkFixtures.jwtUtil();
+        accessToken = jwtUtil.generateAccessToken(user.getId(), user.getEmail(), user.getRole().name());
+        refreshToken = jwtUtil.generateRefreshToken(user.getId());
+        response = mapToResponse();
+    }
+
+    @Benchmark
+    public AuthResponse mapping() {
+        return mapToResponse();
+    }
+
+    @Benchmark
+    public String serialization() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(response);
+    }
+
+    @Benchmark
+    public byte[] mappingAndSerialization() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(mapToResponse());
+    }
+
+    /**
+     * Same mapping AuthService performs after a successful login
+     */
+    private AuthResponse mapToResponse() {
+        return AuthResponse.builder()
+                .accessToken(accessToken)
+                .refreshToken(refreshToken)
+                .userId(user.getId())
+                .role(user.getRole().name())
+                .name(user.getName())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.cryptic.userservice.benchmarks;
+
+import com.cryptic.userservice.entity.User;
+import com.cryptic.userservice.security.JwtKeyRing;
+import com.cryptic.userservice.security.JwtSigningProperties;
+import com.cryptic.userservice.security.JwtUtil;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+
+/**
+ * Shared fixtures for the benchmarks
+ * Values mirror application.yml so the numbers match what the service does at runtime
+ */
+final class BenchmarkFixtures {
+
+    static final long ACCESS_TOKEN_EXPIRATION = 3600000L;
+    static final long REFRESH_TOKEN_EXPIRATION = 86400000L;
+    static final String PASSWORD = "Password@123";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Build a JwtUtil configured like the Spring bean, without starting a context
+     * Signs with a freshly generated RS256 key, as the service does when no keys are configured
+     */
+    static JwtUtil jwtUtil() {
+        JwtSigningProperties signing = new JwtSigningProperties();
+        signing.setAllowEphemeralKey(true);
+        JwtUtil jwtUtil = new JwtUtil(new JwtKeyRing(signing));
+        setField(jwtUtil, "accessTokenExpiration", ACCESS_TOKEN_EXPIRATION);
+        setField(jwtUtil, "refreshTokenExpiration", REFRESH_TOKEN_EXPIRATION);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    static User user() {
+        return User.builder()
+                .id(42L)
+                .name("Mike Driver")
+                .email("mike.driver@example.com")
+                .phone("+1234567894")
+                .hashedPassword("$2a$12$LQv3c1yqBWVHxkd0LHAkCOYz6TtxMQJqhN8/LewY5lW.2E7AYP3dm")
+                .role(User.Role.DRIVER)
+                .status(User.UserStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalStateException("No field '" + name + "' on " + target.getClass().getName());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
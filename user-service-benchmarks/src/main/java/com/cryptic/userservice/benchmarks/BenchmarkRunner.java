@@ -0,0 +1,36 @@
+package com.cryptic.userservice.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the shaded benchmarks jar
+ * Behaves like the stock JMH launcher but always writes results as JSON,
+ * so runs from different commits can be diffed
+ *
+ * Usage: java -jar target/benchmarks.jar [jmh options] [benchmark regex]
+ * Results go to jmh-result.json unless -rff is given
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(cmdOptions);
+        builder.resultFormat(ResultFormatType.JSON);
+        if (cmdOptions.getResult().hasValue()) {
+            builder.result(cmdOptions.getResult().get());
+        } else {
+            builder.result(DEFAULT_RESULT_FILE);
+        }
+
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,140 @@
+package com.cryptic.userservice.benchmarks;
+
+import com.cryptic.userservice.UserServiceApplication;
+import com.cryptic.userservice.dto.response.DriverResponse;
+import com.cryptic.userservice.entity.Driver;
+import com.cryptic.userservice.entity.User;
+import com.cryptic.userservice.repository.DriverRepository;
+import com.cryptic.userservice.repository.UserRepository;
+import com.cryptic.userservice.service.DriverService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Driver and user lookups with the Hibernate second-level cache off and on
+ * Covers the driver read endpoints and the entity loads the write paths start with.
+ * Cache-off always goes to the database. Cache-on serves users and the user id to
+ * driver id mapping from the cache after warmup; driver rows are always read from the database.
+ *
+ * Runs against in-memory H2 by default, which understates the gain; to measure against
+ * Postgres pass the datasource as system properties, e.g.
+ * -jvmArgsAppend "-Dspring.datasource.url=jdbc:postgresql://localhost:5001/db -Dspring.datasource.username=..."
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityCacheBenchmark {
+
+    private static final String H2_URL =
+            "jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+    @Param({"false", "true"})
+    private boolean cacheEnabled;
+
+    @Param({"1000"})
+    private int drivers;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private DriverRepository driverRepository;
+    private UserRepository userRepository;
+    private DriverService driverService;
+    private long[] driverIds;
+    private long[] userIds;
+
+    @Setup
+    public void setUp() {
+        List<String> args = new ArrayList<>(List.of(
+                "--entity-cache.enabled=" + cacheEnabled,
+                "--jwt.signing.allow-ephemeral-key=true",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN"));
+        if (System.getProperty("spring.datasource.url") == null) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=" + H2_URL,
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"));
+        }
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        driverRepository = context.getBean(DriverRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        driverService = context.getBean(DriverService.class);
+        seed();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * A driver load followed by its user; only the user load can hit the cache
+     */
+    @Benchmark
+    public User findDriverAndUserById() {
+        long driverId = driverIds[ThreadLocalRandom.current().nextInt(driverIds.length)];
+        return transactionTemplate.execute(status -> {
+            Driver driver = driverRepository.findById(driverId).orElseThrow();
+            return userRepository.findById(driver.getUserId()).orElseThrow();
+        });
+    }
+
+    /**
+     * GET /api/drivers/{id}
+     */
+    @Benchmark
+    public DriverResponse getDriverById() {
+        return driverService.getDriverById(driverIds[ThreadLocalRandom.current().nextInt(driverIds.length)]);
+    }
+
+    /**
+     * GET /api/drivers/user/{userId}, through the natural-id cache
+     */
+    @Benchmark
+    public DriverResponse getDriverByUserId() {
+        return driverService.getDriverByUserId(userIds[ThreadLocalRandom.current().nextInt(userIds.length)]);
+    }
+
+    private void seed() {
+        List<User> users = new ArrayList<>(drivers);
+        for (int i = 0; i < drivers; i++) {
+            users.add(User.builder()
+                    .name("Driver " + i)
+                    .email("driver" + i + "@example.com")
+                    .phone("+1555" + String.format("%07d", i))
+                    .hashedPassword(BenchmarkFixtures.user().getHashedPassword())
+                    .role(User.Role.DRIVER)
+                    .build());
+        }
+        users = userRepository.saveAll(users);
+
+        List<Driver> rows = new ArrayList<>(drivers);
+        for (User user : users) {
+            rows.add(Driver.builder()
+                    .userId(user.getId())
+                    .licenseNo("BENCH-" + user.getId())
+                    .build());
+        }
+        rows = driverRepository.saveAll(rows);
+
+        userIds = users.stream().mapToLong(User::getId).toArray();
+        driverIds = rows.stream().mapToLong(Driver::getId).toArray();
+    }
+}
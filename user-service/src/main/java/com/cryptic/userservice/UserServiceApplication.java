@@ -2,6 +2,7 @@ package com.cryptic.userservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import java.util.Optional;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @EnableJpaAuditing(auditorAwareRef = "auditorProvider")
 public class UserServiceApplication {
 
@@ -0,0 +1,121 @@
+package com.cryptic.userservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each pooled JDBC connection is held, tagged by endpoint
+ * Exposed as the db.connection.hold timer (tags: method, uri). Hikari's own
+ * hikaricp.connections.usage gives the same figure for the pool as a whole.
+ */
+@Component
+public class ConnectionHoldTimeMetrics implements BeanPostProcessor {
+
+    static final String METRIC_NAME = "db.connection.hold";
+    private static final String NO_REQUEST = "none";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ConnectionHoldTimeMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof MeteredDataSource)) {
+            return new MeteredDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    private void record(String method, String uri, long nanos) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        Timer.builder(METRIC_NAME)
+                .description("Time a JDBC connection is held between checkout and close")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private final class MeteredDataSource extends DelegatingDataSource {
+
+        MeteredDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return meter(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return meter(super.getConnection(username, password));
+        }
+
+        private Connection meter(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new HoldTimeHandler(connection));
+        }
+    }
+
+    private final class HoldTimeHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final long acquiredAt = System.nanoTime();
+        // Endpoint is resolved at checkout, on the thread that borrowed the connection
+        private final String method;
+        private final String uri;
+        private boolean closed;
+
+        HoldTimeHandler(Connection target) {
+            this.target = target;
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (attributes instanceof ServletRequestAttributes servletAttributes) {
+                Object pattern = servletAttributes.getRequest()
+                        .getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                this.method = servletAttributes.getRequest().getMethod();
+                this.uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            } else {
+                this.method = NO_REQUEST;
+                this.uri = NO_REQUEST;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("close".equals(method.getName()) && !closed) {
+                closed = true;
+                record(this.method, uri, System.nanoTime() - acquiredAt);
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.cryptic.userservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache backed by Ehcache 3 through JCache
+ * Every region is created here with a heap tier and an optional off-heap tier, and
+ * Hibernate is told to fail on any region it does not find, so a renamed region cannot
+ * silently fall back to an unbounded default cache. Only id and natural-id lookups are
+ * cached; the query cache stays off, since any write to a table drops every cached
+ * query over it. Driver rows are not cached: they change with every assignment and
+ * location flush, written by JDBC behind Hibernate's back.
+ */
+@Configuration
+@Slf4j
+public class EntityCacheConfig {
+
+    public static final String USERS_REGION = "users";
+    /**
+     * Natural-id cache of drivers: user id to driver id
+     */
+    public static final String DRIVERS_BY_USER_ID_REGION = "drivers-by-user-id";
+
+    private static final List<String> ENTITY_REGIONS = List.of(
+            USERS_REGION,
+            DRIVERS_BY_USER_ID_REGION);
+
+    @Bean
+    @ConditionalOnProperty(prefix = "entity-cache", name = "enabled", matchIfMissing = true)
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        ResourcePoolsBuilder pools = ResourcePoolsBuilder.heap(properties.getHeapEntries());
+        if (properties.getOffHeapMb() > 0) {
+            pools = pools.offheap(properties.getOffHeapMb(), MemoryUnit.MB);
+        }
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder();
+        for (String region : ENTITY_REGIONS) {
+            configuration = configuration.withCache(region,
+                    CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, pools)
+                            .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(properties.getTtl())));
+        }
+
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        // Own URI per context, so several application contexts in one JVM do not share regions
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:user-service:entity-cache:" + UUID.randomUUID()), configuration.build());
+
+        log.info("Entity cache enabled: {} heap entries, {} MB off-heap, ttl {} per region",
+                properties.getHeapEntries(), properties.getOffHeapMb(), properties.getTtl());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(ObjectProvider<CacheManager> entityCacheManager) {
+        return hibernateProperties -> {
+            CacheManager cacheManager = entityCacheManager.getIfAvailable();
+            if (cacheManager == null) {
+                hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+                return;
+            }
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
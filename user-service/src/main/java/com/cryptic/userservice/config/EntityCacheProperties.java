@@ -0,0 +1,32 @@
+package com.cryptic.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Hibernate second-level cache of User entities and driver natural ids (entity-cache.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "entity-cache")
+public class EntityCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Entries kept on the Java heap per region; colder entries move to off-heap
+     */
+    private long heapEntries = 10_000;
+
+    /**
+     * Off-heap tier per region in megabytes, outside the GC's reach; 0 = heap only
+     */
+    private long offHeapMb = 64;
+
+    /**
+     * Entries are reloaded at most this long after they were cached, which bounds
+     * staleness from writes Hibernate does not see
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -1,9 +1,17 @@
 package com.cryptic.userservice.controller;
 
+import com.cryptic.userservice.dto.request.BatchTokenValidationRequest;
 import com.cryptic.userservice.dto.request.LoginRequest;
 import com.cryptic.userservice.dto.request.RegisterRequest;
 import com.cryptic.userservice.dto.response.AuthResponse;
+import com.cryptic.userservice.dto.response.BatchTokenValidationResponse;
+import com.cryptic.userservice.dto.response.TokenValidationResponse;
+import com.cryptic.userservice.exception.AuthenticationException;
+import com.cryptic.userservice.security.AuthRateLimiter;
+import com.cryptic.userservice.security.TokenClaims;
 import com.cryptic.userservice.service.AuthService;
+import com.cryptic.userservice.service.TokenValidationService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,17 +26,23 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final TokenValidationService tokenValidationService;
+    private final AuthRateLimiter authRateLimiter;
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request,
+                                                 HttpServletRequest httpRequest) {
         log.info("Registration request received for email: {}", request.getEmail());
+        authRateLimiter.checkRegister(httpRequest.getRemoteAddr(), request.getEmail());
         AuthResponse response = authService.register(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
         log.info("Login request received for email: {}", request.getEmail());
+        authRateLimiter.checkLogin(httpRequest.getRemoteAddr(), request.getEmail());
         AuthResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
@@ -43,6 +57,20 @@ public class AuthController {
     @GetMapping("/validate")
     public ResponseEntity<String> validateToken(@RequestHeader("Authorization") String token) {
         // This endpoint can be used by other services to validate tokens
+        TokenValidationResponse result = tokenValidationService.validateToken(0, token);
+        if (!result.isValid() || !TokenClaims.TokenType.ACCESS.name().equals(result.getTokenType())) {
+            throw new AuthenticationException("Invalid or expired token");
+        }
         return ResponseEntity.ok("Token is valid");
     }
+
+    @PostMapping("/validate/batch")
+    public ResponseEntity<BatchTokenValidationResponse> validateTokens(
+            @Valid @RequestBody BatchTokenValidationRequest request,
+            HttpServletRequest httpRequest) {
+        // Requires an authenticated caller (see SecurityConfig): results carry user IDs and emails
+        log.info("Batch token validation request received: {} tokens", request.getTokens().size());
+        authRateLimiter.checkValidateBatch(httpRequest.getRemoteAddr());
+        return ResponseEntity.ok(tokenValidationService.validateTokens(request.getTokens()));
+    }
 }
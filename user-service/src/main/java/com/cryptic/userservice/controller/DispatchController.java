@@ -0,0 +1,33 @@
+package com.cryptic.userservice.controller;
+
+import com.cryptic.userservice.dto.request.DispatchBatchRequest;
+import com.cryptic.userservice.dto.response.DispatchStatusResponse;
+import com.cryptic.userservice.dto.response.DispatchSubmitResponse;
+import com.cryptic.userservice.exception.ResourceNotFoundException;
+import com.cryptic.userservice.service.DispatchEngine;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/dispatch")
+@RequiredArgsConstructor
+@Slf4j
+public class DispatchController {
+
+    private final DispatchEngine dispatchEngine;
+
+    @PostMapping("/orders")
+    public ResponseEntity<DispatchSubmitResponse> submitOrders(@Valid @RequestBody DispatchBatchRequest request) {
+        log.info("Dispatch request: {} orders", request.getOrders().size());
+        return ResponseEntity.accepted().body(dispatchEngine.submit(request.getOrders()));
+    }
+
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<DispatchStatusResponse> getOrderStatus(@PathVariable Long orderId) {
+        return ResponseEntity.ok(dispatchEngine.getStatus(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("No dispatch found for order id: " + orderId)));
+    }
+}
@@ -1,14 +1,28 @@
 package com.cryptic.userservice.controller;
 
+import com.cryptic.userservice.dto.request.BulkAssignOrderRequest;
+import com.cryptic.userservice.dto.request.DriverLocationBatchRequest;
+import com.cryptic.userservice.dto.request.DriverRatingBatchRequest;
+import com.cryptic.userservice.dto.request.DriverRatingRequest;
+import com.cryptic.userservice.dto.request.IdBatchRequest;
+import com.cryptic.userservice.dto.request.UpdateDriverLocationRequest;
 import com.cryptic.userservice.dto.request.UpdateDriverStatusRequest;
+import com.cryptic.userservice.dto.response.BulkAssignOrderResponse;
+import com.cryptic.userservice.dto.response.BatchLookupResponse;
+import com.cryptic.userservice.dto.response.CursorPageResponse;
 import com.cryptic.userservice.dto.response.DriverResponse;
+import com.cryptic.userservice.dto.response.LocationIngestResponse;
+import com.cryptic.userservice.dto.response.NearbyDriverResponse;
+import com.cryptic.userservice.dto.response.RatingSubmitResponse;
 import com.cryptic.userservice.entity.Driver;
 import com.cryptic.userservice.service.DriverService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 @RestController
@@ -18,6 +32,7 @@ import java.util.List;
 public class DriverController {
 
     private final DriverService driverService;
+    private final NdjsonResponses ndjsonResponses;
 
     @GetMapping("/{id}")
     public ResponseEntity<DriverResponse> getDriverById(@PathVariable Long id) {
@@ -37,6 +52,33 @@ public class DriverController {
         return ResponseEntity.ok(driverService.getAllDrivers());
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchLookupResponse<DriverResponse>> getDriversByIds(@RequestParam List<Long> ids) {
+        log.info("Get drivers by IDs request: {} IDs", ids.size());
+        return ResponseEntity.ok(driverService.getDriversByIds(ids));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchLookupResponse<DriverResponse>> getDriversByIdsBatch(
+            @Valid @RequestBody IdBatchRequest request) {
+        log.info("Batch drivers lookup request: {} IDs", request.getIds().size());
+        return ResponseEntity.ok(driverService.getDriversByIds(request.getIds()));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponse<DriverResponse>> getDriversPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int size) {
+        log.info("Get drivers page request: after {} size {}", after, size);
+        return ResponseEntity.ok(driverService.getDriversPage(after, size));
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonResponses.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllDrivers(HttpServletRequest httpRequest) {
+        log.info("Stream all drivers request");
+        return ndjsonResponses.stream(httpRequest, driverService::streamAllDrivers);
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<DriverResponse>> getDriversByStatus(
             @PathVariable Driver.DriverStatus status) {
@@ -50,6 +92,40 @@ public class DriverController {
         return ResponseEntity.ok(driverService.getAvailableDrivers());
     }
 
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<DriverResponse>> getLeaderboard(
+            @RequestParam(defaultValue = "rating") String by,
+            @RequestParam(defaultValue = "10") int k) {
+        log.debug("Get leaderboard request: by {} k {}", by, k);
+        return ResponseEntity.ok(driverService.getLeaderboard(by, k));
+    }
+
+    @GetMapping("/nearest")
+    public ResponseEntity<List<NearbyDriverResponse>> getNearestDrivers(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(defaultValue = "5") double radius) {
+        log.debug("Get nearest drivers request: ({}, {}) k {} radius {}", lat, lon, k, radius);
+        return ResponseEntity.ok(driverService.findNearestDrivers(lat, lon, k, radius));
+    }
+
+    @PutMapping("/{id}/location")
+    public ResponseEntity<Void> updateDriverLocation(
+            @PathVariable Long id,
+            @Valid @RequestBody UpdateDriverLocationRequest request) {
+        log.debug("Update driver location request: {}", id);
+        driverService.updateDriverLocation(id, request);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/locations")
+    public ResponseEntity<LocationIngestResponse> ingestLocations(
+            @Valid @RequestBody DriverLocationBatchRequest request) {
+        log.debug("Ingest driver locations request: {} pings", request.getPings().size());
+        return ResponseEntity.accepted().body(driverService.ingestLocations(request.getPings()));
+    }
+
     @PatchMapping("/{id}/status")
     public ResponseEntity<DriverResponse> updateDriverStatus(
             @PathVariable Long id,
@@ -67,6 +143,29 @@ public class DriverController {
         return ResponseEntity.ok("Order assigned successfully");
     }
 
+    @PostMapping("/assign-orders")
+    public ResponseEntity<BulkAssignOrderResponse> assignOrders(
+            @Valid @RequestBody BulkAssignOrderRequest request) {
+        log.info("Bulk assign orders request: {} assignments", request.getAssignments().size());
+        return ResponseEntity.ok(driverService.assignOrders(request.getAssignments()));
+    }
+
+    @PostMapping("/{id}/ratings")
+    public ResponseEntity<Void> submitRating(
+            @PathVariable Long id,
+            @Valid @RequestBody DriverRatingRequest request) {
+        log.debug("Submit rating request for driver: {}", id);
+        driverService.submitRating(id, request);
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/ratings")
+    public ResponseEntity<RatingSubmitResponse> submitRatings(
+            @Valid @RequestBody DriverRatingBatchRequest request) {
+        log.debug("Submit ratings request: {} ratings", request.getRatings().size());
+        return ResponseEntity.accepted().body(driverService.submitRatings(request.getRatings()));
+    }
+
     @PostMapping("/{id}/complete-order")
     public ResponseEntity<String> completeOrder(@PathVariable Long id) {
         log.info("Complete order for driver: {}", id);
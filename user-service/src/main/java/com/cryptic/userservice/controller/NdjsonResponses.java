@@ -0,0 +1,95 @@
+package com.cryptic.userservice.controller;
+
+import com.cryptic.userservice.exception.ServiceUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Writes rows as newline-delimited JSON while they are read, so response
+ * memory stays flat no matter how many rows there are
+ * Each stream holds a database connection for as long as the client reads, so at
+ * most export.max-concurrent-streams run at once; further requests get 503.
+ * The permit is released when the body finishes, or when the async request
+ * completes, times out or fails without the body having run, whichever comes first.
+ */
+@Component
+class NdjsonResponses {
+
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    private final ObjectWriter writer;
+    private final Semaphore streams;
+    private final long retryAfterSeconds;
+
+    NdjsonResponses(ObjectMapper objectMapper,
+                    @Value("${export.max-concurrent-streams:2}") int maxConcurrentStreams,
+                    @Value("${export.retry-after-seconds:30}") long retryAfterSeconds) {
+        if (maxConcurrentStreams < 1) {
+            throw new IllegalArgumentException("export.max-concurrent-streams must be at least 1");
+        }
+        this.writer = objectMapper.writer();
+        this.streams = new Semaphore(maxConcurrentStreams);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @param source Pushes every row into the consumer it is given
+     * @throws ServiceUnavailableException if the maximum number of streams is already running
+     */
+    <T> ResponseEntity<StreamingResponseBody> stream(HttpServletRequest request, Consumer<Consumer<T>> source) {
+        if (!streams.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many exports in progress, try again later", retryAfterSeconds);
+        }
+        Runnable release = releaseOnce();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(NdjsonResponses.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <C> void afterCompletion(NativeWebRequest webRequest, Callable<C> task) {
+                        release.run();
+                    }
+                });
+        StreamingResponseBody body = outputStream -> {
+            try {
+                source.accept(row -> {
+                    try {
+                        outputStream.write(writer.writeValueAsBytes(row));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } finally {
+                release.run();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private Runnable releaseOnce() {
+        AtomicBoolean held = new AtomicBoolean(true);
+        return () -> {
+            if (held.compareAndSet(true, false)) {
+                streams.release();
+            }
+        };
+    }
+}
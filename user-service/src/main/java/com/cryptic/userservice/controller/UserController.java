@@ -1,15 +1,20 @@
 package com.cryptic.userservice.controller;
 
 import com.cryptic.userservice.dto.request.ChangePasswordRequest;
+import com.cryptic.userservice.dto.request.IdBatchRequest;
 import com.cryptic.userservice.dto.request.UpdateUserRequest;
+import com.cryptic.userservice.dto.response.BatchLookupResponse;
+import com.cryptic.userservice.dto.response.CursorPageResponse;
 import com.cryptic.userservice.dto.response.UserResponse;
 import com.cryptic.userservice.entity.User;
 import com.cryptic.userservice.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 @RestController
@@ -19,6 +24,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final NdjsonResponses ndjsonResponses;
 
     @GetMapping("/{id}")
     public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
@@ -38,6 +44,33 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchLookupResponse<UserResponse>> getUsersByIds(@RequestParam List<Long> ids) {
+        log.info("Get users by IDs request: {} IDs", ids.size());
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchLookupResponse<UserResponse>> getUsersByIdsBatch(
+            @Valid @RequestBody IdBatchRequest request) {
+        log.info("Batch users lookup request: {} IDs", request.getIds().size());
+        return ResponseEntity.ok(userService.getUsersByIds(request.getIds()));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<CursorPageResponse<UserResponse>> getUsersPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int size) {
+        log.info("Get users page request: after {} size {}", after, size);
+        return ResponseEntity.ok(userService.getUsersPage(after, size));
+    }
+
+    @GetMapping(value = "/stream", produces = NdjsonResponses.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers(HttpServletRequest httpRequest) {
+        log.info("Stream all users request");
+        return ndjsonResponses.stream(httpRequest, userService::streamAllUsers);
+    }
+
     @GetMapping("/role/{role}")
     public ResponseEntity<List<UserResponse>> getUsersByRole(@PathVariable User.Role role) {
         log.info("Get users by role request: {}", role);
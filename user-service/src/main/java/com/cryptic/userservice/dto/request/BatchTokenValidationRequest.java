@@ -0,0 +1,21 @@
+package com.cryptic.userservice.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTokenValidationRequest {
+
+    @NotEmpty(message = "At least one token is required")
+    @Size(max = 1000, message = "At most 1000 tokens can be validated per request")
+    private List<String> tokens;
+}
@@ -0,0 +1,23 @@
+package com.cryptic.userservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverLocationBatchRequest {
+
+    @NotEmpty(message = "At least one ping is required")
+    @Size(max = 1000, message = "At most 1000 pings can be sent per request")
+    private List<@Valid @NotNull DriverLocationPing> pings;
+}
@@ -0,0 +1,23 @@
+package com.cryptic.userservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverRatingBatchRequest {
+
+    @NotEmpty(message = "At least one rating is required")
+    @Size(max = 1000, message = "At most 1000 ratings can be sent per request")
+    private List<@Valid @NotNull DriverRatingRequest> ratings;
+}
@@ -0,0 +1,31 @@
+package com.cryptic.userservice.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverRatingRequest {
+
+    /**
+     * Ignored by POST /api/drivers/{id}/ratings, where the path decides
+     */
+    private Long driverId;
+
+    @NotNull(message = "Rating is required")
+    @DecimalMin(value = "1.0", message = "Rating must be between 1 and 5")
+    @DecimalMax(value = "5.0", message = "Rating must be between 1 and 5")
+    private Double rating;
+
+    /**
+     * Order the rating is for; a second rating for the same driver and order is ignored
+     */
+    private Long orderId;
+}
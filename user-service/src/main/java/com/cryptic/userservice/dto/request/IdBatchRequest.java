@@ -0,0 +1,41 @@
+package com.cryptic.userservice.dto.request;
+
+import com.cryptic.userservice.exception.ValidationException;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdBatchRequest {
+
+    public static final int MAX_IDS = 1000;
+
+    @NotEmpty(message = "At least one ID is required")
+    @Size(max = MAX_IDS, message = "At most {max} IDs can be looked up per request")
+    private List<@NotNull(message = "IDs must not be null") Long> ids;
+
+    /**
+     * Same rules as the annotations, for IDs that arrive as a query parameter
+     * @throws ValidationException if the list is empty, too long or contains null
+     */
+    public static void validateIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidationException("At least one ID is required");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new ValidationException("At most " + MAX_IDS + " IDs can be looked up per request");
+        }
+        if (ids.contains(null)) {
+            throw new ValidationException("IDs must not be null");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.cryptic.userservice.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderAssignment {
+
+    @NotNull(message = "Driver ID is required")
+    private Long driverId;
+
+    @NotNull(message = "Order ID is required")
+    private Long orderId;
+}
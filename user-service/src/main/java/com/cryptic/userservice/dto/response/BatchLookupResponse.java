@@ -0,0 +1,45 @@
+package com.cryptic.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLookupResponse<T> {
+    private int total;
+    private int found;
+    // Same order and length as the requested IDs; null where the ID does not exist
+    private List<T> results;
+    private List<Long> missingIds;
+
+    /**
+     * Line up looked-up rows with the requested IDs
+     * @param ids Requested IDs, possibly with duplicates
+     * @param byId Rows that exist, keyed by ID
+     */
+    public static <T> BatchLookupResponse<T> of(List<Long> ids, Map<Long, T> byId) {
+        List<T> results = new ArrayList<>(ids.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            T row = byId.get(id);
+            results.add(row);
+            if (row == null) {
+                missingIds.add(id);
+            }
+        }
+        return BatchLookupResponse.<T>builder()
+                .total(ids.size())
+                .found(ids.size() - missingIds.size())
+                .results(results)
+                .missingIds(missingIds)
+                .build();
+    }
+}
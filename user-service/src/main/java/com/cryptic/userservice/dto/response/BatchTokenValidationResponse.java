@@ -0,0 +1,18 @@
+package com.cryptic.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTokenValidationResponse {
+    private int total;
+    private int valid;
+    private List<TokenValidationResponse> results;
+}
@@ -0,0 +1,18 @@
+package com.cryptic.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAssignOrderResponse {
+    private int total;
+    private int assigned;
+    private List<OrderAssignmentResult> results;
+}
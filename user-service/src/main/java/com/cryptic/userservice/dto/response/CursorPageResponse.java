@@ -0,0 +1,36 @@
+package com.cryptic.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> items;
+    // Pass as 'after' to fetch the next page; null when there are no more rows
+    private Long nextCursor;
+    private boolean hasMore;
+
+    /**
+     * Build a page from a query that fetched one row more than the page size
+     * @param rows Up to pageSize + 1 rows in cursor order
+     * @param pageSize Requested page size
+     * @param cursorOf Extracts the cursor value from a row
+     */
+    public static <T> CursorPageResponse<T> of(List<T> rows, int pageSize, Function<T, Long> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        return CursorPageResponse.<T>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? cursorOf.apply(items.get(items.size() - 1)) : null)
+                .build();
+    }
+}
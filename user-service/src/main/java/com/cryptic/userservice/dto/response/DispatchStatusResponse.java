@@ -0,0 +1,26 @@
+package com.cryptic.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchStatusResponse {
+    private Long orderId;
+    private State state;
+    private Long driverId;
+    private Integer attempts;
+    private LocalDateTime queuedAt;
+    private LocalDateTime finishedAt;
+    private Long matchLatencyMs;
+
+    public enum State {
+        QUEUED, ASSIGNED, UNMATCHED
+    }
+}
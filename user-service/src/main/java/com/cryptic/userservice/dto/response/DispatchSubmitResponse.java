@@ -0,0 +1,19 @@
+package com.cryptic.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchSubmitResponse {
+    private int received;
+    private int queued;
+    private List<Long> duplicateOrderIds;
+    private List<Long> rejectedOrderIds;
+}
@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class DriverResponse {
@@ -24,4 +24,8 @@ public class DriverResponse {
     private Double rating;
     private Integer totalDeliveries;
     private LocalDateTime createdAt;
+    private Double latitude;
+    private Double longitude;
+    private LocalDateTime locationUpdatedAt;
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,17 @@
+package com.cryptic.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationIngestResponse {
+    private int received;
+    private int accepted;
+    private int stale;
+    private int dropped;
+}
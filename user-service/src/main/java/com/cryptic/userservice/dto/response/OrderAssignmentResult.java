@@ -0,0 +1,20 @@
+package com.cryptic.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderAssignmentResult {
+    private Long driverId;
+    private Long orderId;
+    private Outcome result;
+
+    public enum Outcome {
+        ASSIGNED, CONFLICT, NOT_FOUND
+    }
+}
@@ -0,0 +1,19 @@
+package com.cryptic.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSubmitResponse {
+    private int received;
+    private int accepted;
+    private int duplicates;
+    private List<Long> unknownDriverIds;
+}
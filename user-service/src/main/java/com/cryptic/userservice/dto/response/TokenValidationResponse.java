@@ -0,0 +1,23 @@
+package com.cryptic.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenValidationResponse {
+    private int index;
+    private boolean valid;
+    private Long userId;
+    private String email;
+    private String role;
+    private String tokenType;
+    private Instant expiresAt;
+    private String error;
+}
@@ -1,7 +1,10 @@
 package com.cryptic.userservice.entity;
 
+import com.cryptic.userservice.config.EntityCacheConfig;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -19,17 +22,24 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @EntityListeners(AuditingEntityListener.class)
+// Rows are rewritten by JDBC on every assignment, completion and location flush, so only the
+// immutable user id to driver id mapping is cached, never the row itself
+@NaturalIdCache(region = EntityCacheConfig.DRIVERS_BY_USER_ID_REGION)
 public class Driver {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(name = "user_id", nullable = false, unique = true)
     private Long userId;
 
+    // Only for JOIN queries; kept out of toString/equals/hashCode so they never touch the lazy proxy
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     @Column(name = "license_no", nullable = false, unique = true, length = 50)
@@ -40,17 +50,39 @@ public class Driver {
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
+    @Builder.Default
     private DriverStatus status = DriverStatus.OFFLINE;
 
-    @Column(name = "current_order_id")
+    // Columns below up to createdAt are only changed by DriverJdbcRepository (atomic increments
+    // and conditional writes); updatable = false stops an entity save from writing back stale values
+    @Column(name = "current_order_id", updatable = false)
     private Long currentOrderId;
 
-    @Column(precision = 3, scale = 2)
+    @Column(precision = 3, scale = 2, updatable = false)
+    @Builder.Default
     private BigDecimal rating = BigDecimal.valueOf(5.0);
 
-    @Column(name = "total_deliveries")
+    @Column(name = "total_deliveries", updatable = false)
+    @Builder.Default
     private Integer totalDeliveries = 0;
 
+    @Column(name = "rating_sum", updatable = false)
+    @Builder.Default
+    private Double ratingSum = 0.0;
+
+    @Column(name = "rating_count", updatable = false)
+    @Builder.Default
+    private Long ratingCount = 0L;
+
+    @Column(updatable = false)
+    private Double latitude;
+
+    @Column(updatable = false)
+    private Double longitude;
+
+    @Column(name = "location_updated_at", updatable = false)
+    private LocalDateTime locationUpdatedAt;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,38 @@
+package com.cryptic.userservice.event;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Cross-node invalidation over Postgres LISTEN/NOTIFY (cache-coherence.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "cache-coherence")
+public class CacheCoherenceProperties {
+
+    /**
+     * Condition for the notification beans: enabled and backed by PostgreSQL
+     */
+    static final String ACTIVE = "${cache-coherence.enabled:true} and " +
+            "'${spring.datasource.url:}'.startsWith('jdbc:postgresql:')";
+
+    /**
+     * Only takes effect when the datasource is PostgreSQL
+     */
+    private boolean enabled = true;
+
+    /**
+     * NOTIFY channel shared by all replicas
+     */
+    private String channel = "user_service_changes";
+
+    /**
+     * Longest wait for notifications before the listener checks its connection again
+     */
+    private int pollTimeoutMs = 500;
+
+    /**
+     * Pause before reconnecting after the listen connection is lost
+     */
+    private long reconnectDelayMs = 2000;
+}
@@ -0,0 +1,55 @@
+package com.cryptic.userservice.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Wire format of change notifications sent between nodes over Postgres NOTIFY
+ * Payloads are "origin|U|userId|email" or "origin|D|id,id,...", well under the
+ * 8000-byte NOTIFY limit because driver ids are split into chunks.
+ */
+record ChangeNotification(String origin, Kind kind, List<Long> ids, String email) {
+
+    enum Kind {
+        U, D
+    }
+
+    static final int MAX_IDS_PER_PAYLOAD = 500;
+
+    static ChangeNotification user(String origin, Long userId, String email) {
+        return new ChangeNotification(origin, Kind.U, List.of(userId), email);
+    }
+
+    static List<ChangeNotification> drivers(String origin, Collection<Long> driverIds) {
+        List<Long> ids = new ArrayList<>(driverIds);
+        List<ChangeNotification> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_PAYLOAD) {
+            chunks.add(new ChangeNotification(origin, Kind.D,
+                    ids.subList(from, Math.min(from + MAX_IDS_PER_PAYLOAD, ids.size())), null));
+        }
+        return chunks;
+    }
+
+    String encode() {
+        String idList = String.join(",", ids.stream().map(String::valueOf).toList());
+        return kind == Kind.U
+                ? origin + "|U|" + idList + "|" + (email != null ? email : "")
+                : origin + "|D|" + idList;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the payload is not in the expected format
+     */
+    static ChangeNotification decode(String payload) {
+        String[] parts = payload.split("\\|", 4);
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Malformed change notification: " + payload);
+        }
+        Kind kind = Kind.valueOf(parts[1]);
+        List<Long> ids = Arrays.stream(parts[2].split(",")).map(Long::valueOf).toList();
+        String email = kind == Kind.U && parts.length == 4 && !parts[3].isEmpty() ? parts[3] : null;
+        return new ChangeNotification(parts[0], kind, ids, email);
+    }
+}
@@ -0,0 +1,193 @@
+package com.cryptic.userservice.event;
+
+import com.cryptic.userservice.service.DriverIndexUpdater;
+import com.cryptic.userservice.service.EntityCacheEvictor;
+import com.cryptic.userservice.service.UserCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * Applies change notifications from other replicas to the local caches and driver indexes
+ * A dedicated thread holds its own connection outside the pool and waits on LISTEN, so
+ * invalidations arrive within milliseconds of the remote commit. If the connection
+ * drops, notifications sent meanwhile are lost, so after reconnecting the caches are
+ * cleared and the driver indexes reloaded in full.
+ */
+@Component
+@ConditionalOnExpression(CacheCoherenceProperties.ACTIVE)
+@Slf4j
+public class ChangeNotificationListener {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final DataSourceProperties dataSourceProperties;
+    private final CacheCoherenceProperties properties;
+    private final String nodeId;
+    private final UserCache userCache;
+    private final DriverIndexUpdater driverIndexUpdater;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final Counter received;
+    private final Counter reconnects;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public ChangeNotificationListener(DataSourceProperties dataSourceProperties,
+                                      CacheCoherenceProperties properties,
+                                      ChangeNotificationPublisher publisher,
+                                      UserCache userCache,
+                                      DriverIndexUpdater driverIndexUpdater,
+                                      EntityCacheEvictor entityCacheEvictor,
+                                      MeterRegistry meterRegistry) {
+        if (!CHANNEL_NAME.matcher(properties.getChannel()).matches()) {
+            throw new IllegalArgumentException("cache-coherence.channel must be a lower-case SQL identifier");
+        }
+        this.dataSourceProperties = dataSourceProperties;
+        this.properties = properties;
+        this.nodeId = publisher.getNodeId();
+        this.userCache = userCache;
+        this.driverIndexUpdater = driverIndexUpdater;
+        this.entityCacheEvictor = entityCacheEvictor;
+        this.received = Counter.builder("cache.coherence.notifications")
+                .description("Change notifications exchanged with other replicas")
+                .tag("direction", "received")
+                .register(meterRegistry);
+        this.reconnects = Counter.builder("cache.coherence.reconnects")
+                .description("Times the LISTEN connection was re-established")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "cache-coherence-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        closeQuietly(connection);
+    }
+
+    private void run() {
+        boolean missedNotifications = false;
+        while (running) {
+            try (Connection conn = openConnection()) {
+                connection = conn;
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("LISTEN " + properties.getChannel());
+                }
+                log.info("Listening for change notifications on channel {}", properties.getChannel());
+                if (missedNotifications) {
+                    resync();
+                    missedNotifications = false;
+                }
+
+                PGConnection pgConnection = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(properties.getPollTimeoutMs());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                missedNotifications = true;
+                reconnects.increment();
+                log.warn("Change notification connection lost, reconnecting in {} ms: {}",
+                        properties.getReconnectDelayMs(), ex.getMessage());
+                try {
+                    Thread.sleep(properties.getReconnectDelayMs());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void handle(String payload) {
+        ChangeNotification notification;
+        try {
+            notification = ChangeNotification.decode(payload);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring change notification: {}", ex.getMessage());
+            return;
+        }
+        if (nodeId.equals(notification.origin())) {
+            return;
+        }
+        received.increment();
+
+        try {
+            switch (notification.kind()) {
+                case U -> {
+                    Long userId = notification.ids().get(0);
+                    entityCacheEvictor.evictUser(userId);
+                    userCache.invalidate(userId, notification.email());
+                    driverIndexUpdater.onUserChanged(new UserChangedEvent(userId, notification.email()));
+                }
+                case D -> driverIndexUpdater.onDriversChanged(new DriversChangedEvent(notification.ids()));
+            }
+        } catch (RuntimeException ex) {
+            // Keep listening; the periodic refresh repairs whatever this missed
+            log.error("Failed to apply change notification {}: {}", payload, ex.getMessage());
+        }
+    }
+
+    private void resync() {
+        log.info("Resynchronising caches after missed change notifications");
+        entityCacheEvictor.evictAll();
+        userCache.invalidateAll();
+        driverIndexUpdater.rebuild();
+    }
+
+    private Connection openConnection() throws SQLException {
+        Properties connectionProperties = new Properties();
+        connectionProperties.setProperty("user", dataSourceProperties.determineUsername());
+        String password = dataSourceProperties.determinePassword();
+        if (password != null) {
+            connectionProperties.setProperty("password", password);
+        }
+        connectionProperties.setProperty("tcpKeepAlive", "true");
+        connectionProperties.setProperty("ApplicationName", "user-service-change-listener");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), connectionProperties);
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+            // shutting down
+        }
+    }
+}
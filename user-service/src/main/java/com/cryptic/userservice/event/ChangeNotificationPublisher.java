@@ -0,0 +1,103 @@
+package com.cryptic.userservice.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Forwards local change events to the other replicas with pg_notify
+ * Runs just before commit on the writing transaction's own connection, so Postgres
+ * delivers the notification exactly when the change becomes visible and drops it
+ * on rollback. Writes made outside a transaction notify immediately.
+ * Each pg_notify runs under a savepoint, so a failed notification is rolled back on
+ * its own and never aborts the write it belongs to. Postgres only reports a full
+ * notification queue at commit itself, which no savepoint can absorb.
+ */
+@Component
+@ConditionalOnExpression(CacheCoherenceProperties.ACTIVE)
+@Slf4j
+public class ChangeNotificationPublisher {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Counter sent;
+
+    public ChangeNotificationPublisher(JdbcTemplate jdbcTemplate,
+                                       CacheCoherenceProperties properties,
+                                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.channel = properties.getChannel();
+        this.sent = Counter.builder("cache.coherence.notifications")
+                .description("Change notifications exchanged with other replicas")
+                .tag("direction", "sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Identifies this replica, so it can ignore its own notifications
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        send(ChangeNotification.user(nodeId, event.userId(), event.email()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDriverChanged(DriverChangedEvent event) {
+        ChangeNotification.drivers(nodeId, List.of(event.driverId())).forEach(this::send);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDriversChanged(DriversChangedEvent event) {
+        ChangeNotification.drivers(nodeId, event.driverIds()).forEach(this::send);
+    }
+
+    private void send(ChangeNotification notification) {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                notifyUnderSavepoint(con, notification.encode());
+                return null;
+            });
+            sent.increment();
+        } catch (DataAccessException ex) {
+            // The write still commits; other replicas keep the stale entry until their driver
+            // index refresh or user cache TTL, whichever applies
+            log.warn("Failed to send change notification {}: {}", notification.encode(), ex.getMessage());
+        }
+    }
+
+    private void notifyUnderSavepoint(Connection con, String payload) throws SQLException {
+        Savepoint savepoint = con.getAutoCommit() ? null : con.setSavepoint();
+        try (PreparedStatement statement = con.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, channel);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException ex) {
+            if (savepoint != null) {
+                con.rollback(savepoint);
+            }
+            throw ex;
+        }
+        if (savepoint != null) {
+            con.releaseSavepoint(savepoint);
+        }
+    }
+}
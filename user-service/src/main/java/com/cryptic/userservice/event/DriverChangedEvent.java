@@ -0,0 +1,8 @@
+package com.cryptic.userservice.event;
+
+/**
+ * Published by write paths that change a driver row
+ * Listeners that keep in-memory views react after the transaction commits
+ */
+public record DriverChangedEvent(Long driverId) {
+}
@@ -0,0 +1,9 @@
+package com.cryptic.userservice.event;
+
+import java.util.Collection;
+
+/**
+ * Bulk variant of DriverChangedEvent, so listeners can reload all rows in one query
+ */
+public record DriversChangedEvent(Collection<Long> driverIds) {
+}
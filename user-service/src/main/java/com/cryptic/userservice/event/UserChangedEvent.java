@@ -0,0 +1,8 @@
+package com.cryptic.userservice.event;
+
+/**
+ * Published by write paths that change or delete a user row
+ * @param email Email of the user, so caches keyed by email can be cleared without a lookup
+ */
+public record UserChangedEvent(Long userId, String email) {
+}
@@ -0,0 +1,10 @@
+package com.cryptic.userservice.exception;
+
+/**
+ * Thrown when an order cannot be assigned because the driver is busy or not ONLINE
+ */
+public class DriverUnavailableException extends RuntimeException {
+    public DriverUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,204 @@
+package com.cryptic.userservice.repository;
+
+import com.cryptic.userservice.dto.request.DriverLocationPing;
+import com.cryptic.userservice.dto.request.OrderAssignment;
+import com.cryptic.userservice.entity.Driver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Plain JDBC writes for hot paths where going through the persistence context is too costly
+ * Hibernate does not see these writes, so callers publish DriverChangedEvent or
+ * DriversChangedEvent for the driver indexes to reload the affected rows. Driver rows
+ * are kept out of the second-level cache, so no cached copy can go stale.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DriverJdbcRepository {
+
+    private static final String UPDATE_LOCATION =
+            "UPDATE drivers SET latitude = ?, longitude = ?, location_updated_at = ?, updated_at = ? " +
+            "WHERE id = ? AND (location_updated_at IS NULL OR location_updated_at < ?)";
+
+    private static final String SET_LOCATION =
+            "UPDATE drivers SET latitude = ?, longitude = ?, location_updated_at = ?, updated_at = ? WHERE id = ?";
+
+    private static final String COMPLETE_ORDER =
+            "UPDATE drivers SET current_order_id = NULL, status = 'ONLINE', " +
+            "total_deliveries = COALESCE(total_deliveries, 0) + 1, updated_at = ? WHERE id = ?";
+
+    private static final String ASSIGN_ORDER =
+            "UPDATE drivers SET current_order_id = ?, status = 'BUSY', updated_at = ? " +
+            "WHERE id = ? AND current_order_id IS NULL AND status = 'ONLINE'";
+
+    private static final String SET_STATUS =
+            "UPDATE drivers SET status = ?, updated_at = ? WHERE id = ?";
+
+    private static final String SET_RATING =
+            "UPDATE drivers SET rating = ?, updated_at = ? WHERE id = ?";
+
+    private static final String ADD_RATINGS =
+            "UPDATE drivers SET rating_sum = COALESCE(rating_sum, 0) + ?, rating_count = COALESCE(rating_count, 0) + ?, " +
+            "rating = ROUND(CAST((COALESCE(rating_sum, 0) + ?) / (COALESCE(rating_count, 0) + ?) AS NUMERIC), 2), " +
+            "updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Give an order to a driver only if the driver is ONLINE and has no current order
+     * Check and write happen in one statement, so two dispatchers can never both win
+     * @return 1 if assigned, 0 if the driver is missing, busy or not ONLINE
+     */
+    public int assignOrderIfAvailable(Long driverId, Long orderId) {
+        return jdbcTemplate.update(ASSIGN_ORDER, orderId, Timestamp.valueOf(LocalDateTime.now()), driverId);
+    }
+
+    /**
+     * Finish the current order: free the driver and count the delivery in one statement
+     * The increment happens in the database, so concurrent completions never lose a count
+     * @return 1 if updated, 0 if the driver does not exist
+     */
+    public int completeOrder(Long driverId) {
+        return jdbcTemplate.update(COMPLETE_ORDER, Timestamp.valueOf(LocalDateTime.now()), driverId);
+    }
+
+    /**
+     * Set the status of a driver, leaving every other column as it is in the database
+     * A load-modify-save would write back the whole row as loaded, undoing an assignment
+     * committed in between
+     * @return 1 if updated, 0 if the driver does not exist
+     */
+    public int updateStatus(Long driverId, Driver.DriverStatus status) {
+        return jdbcTemplate.update(SET_STATUS, status.name(), Timestamp.valueOf(LocalDateTime.now()), driverId);
+    }
+
+    /**
+     * Overwrite the average rating of a driver, leaving every other column untouched
+     * @return 1 if updated, 0 if the driver does not exist
+     */
+    public int updateRating(Long driverId, BigDecimal rating) {
+        return jdbcTemplate.update(SET_RATING, rating, Timestamp.valueOf(LocalDateTime.now()), driverId);
+    }
+
+    /**
+     * Store the latest reported position of a driver, whatever position it had before
+     * @return 1 if updated, 0 if the driver does not exist
+     */
+    public int updateLocation(Long driverId, double latitude, double longitude, LocalDateTime reportedAt) {
+        Timestamp timestamp = Timestamp.valueOf(reportedAt);
+        return jdbcTemplate.update(SET_LOCATION, latitude, longitude, timestamp, timestamp, driverId);
+    }
+
+    /**
+     * Write the latest position of many drivers as JDBC batches
+     * A row is only updated if the ping is newer than the stored position, so a late
+     * flush can never move a driver backwards
+     * @param pings One ping per driver
+     * @param batchSize Statements per JDBC batch
+     * @return Number of rows updated
+     */
+    public int batchUpdateLocations(List<DriverLocationPing> pings, int batchSize) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_LOCATION, pings, batchSize, (ps, ping) -> {
+            Timestamp recordedAt = Timestamp.valueOf(ping.getRecordedAt());
+            ps.setDouble(1, ping.getLatitude());
+            ps.setDouble(2, ping.getLongitude());
+            ps.setTimestamp(3, recordedAt);
+            ps.setTimestamp(4, now);
+            ps.setLong(5, ping.getDriverId());
+            ps.setTimestamp(6, recordedAt);
+        });
+
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // SUCCESS_NO_INFO (-2) counts as one row
+                updated += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Apply many conditional order assignments as one JDBC batch
+     * Same condition as assignOrderIfAvailable; statements run in
+     * list order, so a driver listed twice only gets the first order
+     * @param assignments Driver and order pairs
+     * @return Update count per pair, in input order (may be Statement.SUCCESS_NO_INFO)
+     */
+    public int[] batchAssignOrders(List<OrderAssignment> assignments) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.batchUpdate(ASSIGN_ORDER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                OrderAssignment assignment = assignments.get(i);
+                ps.setLong(1, assignment.getOrderId());
+                ps.setTimestamp(2, now);
+                ps.setLong(3, assignment.getDriverId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return assignments.size();
+            }
+        });
+    }
+
+    /**
+     * Add accumulated ratings to the running sum and count of each driver and derive the average
+     * The right-hand sides see the pre-update column values, so sum, count and average stay in step
+     * @param deltas One delta per driver
+     * @param batchSize Statements per JDBC batch
+     * @return Update count per delta, grouped by batch
+     */
+    public int[][] batchAddRatings(List<RatingDelta> deltas, int batchSize) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.batchUpdate(ADD_RATINGS, deltas, batchSize, (ps, delta) -> {
+            ps.setDouble(1, delta.sum());
+            ps.setLong(2, delta.count());
+            ps.setDouble(3, delta.sum());
+            ps.setLong(4, delta.count());
+            ps.setTimestamp(5, now);
+            ps.setLong(6, delta.driverId());
+        });
+    }
+
+    /**
+     * Current order of each existing driver among the given ids
+     * @return Driver id to current order id (null value when free); missing drivers are absent
+     */
+    public Map<Long, Long> findCurrentOrders(Collection<Long> driverIds) {
+        if (driverIds.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(",", Collections.nCopies(driverIds.size(), "?"));
+        Map<Long, Long> currentOrders = new HashMap<>(driverIds.size() * 2);
+        jdbcTemplate.query("SELECT id, current_order_id FROM drivers WHERE id IN (" + placeholders + ")",
+                rs -> {
+                    long orderId = rs.getLong(2);
+                    currentOrders.put(rs.getLong(1), rs.wasNull() ? null : orderId);
+                },
+                driverIds.toArray());
+        return currentOrders;
+    }
+
+    /**
+     * Ratings received for one driver since the last flush
+     */
+    public record RatingDelta(Long driverId, double sum, long count) {
+
+        public RatingDelta plus(RatingDelta other) {
+            return new RatingDelta(driverId, sum + other.sum, count + other.count);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.cryptic.userservice.repository;
+
+import com.cryptic.userservice.entity.Driver;
+
+import java.util.Optional;
+
+/**
+ * Driver lookups by natural id, which go through the natural-id cache
+ */
+public interface DriverNaturalIdRepository {
+
+    /**
+     * Resolved via the natural-id cache (user id to driver id), so a warm lookup
+     * only loads the row by primary key
+     */
+    Optional<Driver> findByNaturalUserId(Long userId);
+}
@@ -0,0 +1,23 @@
+package com.cryptic.userservice.repository;
+
+import com.cryptic.userservice.entity.Driver;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class DriverNaturalIdRepositoryImpl implements DriverNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Driver> findByNaturalUserId(Long userId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Driver.class)
+                .loadOptional(userId);
+    }
+}
@@ -1,16 +1,31 @@
 package com.cryptic.userservice.repository;
 
+import com.cryptic.userservice.dto.response.DriverResponse;
 import com.cryptic.userservice.entity.Driver;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface DriverRepository extends JpaRepository<Driver, Long> {
+public interface DriverRepository extends JpaRepository<Driver, Long>, DriverNaturalIdRepository {
 
-    Optional<Driver> findByUserId(Long userId);
+    /**
+     * Driver joined with its user, mapped straight into the response DTO
+     * One statement per call regardless of the number of rows
+     */
+    String DRIVER_RESPONSE_SELECT = "SELECT new com.cryptic.userservice.dto.response.DriverResponse(" +
+            "d.id, d.userId, u.name, u.email, u.phone, d.licenseNo, d.vehicleInfo, " +
+            "CAST(d.status AS String), d.currentOrderId, CAST(d.rating AS Double), d.totalDeliveries, d.createdAt, " +
+            "d.latitude, d.longitude, d.locationUpdatedAt, d.updatedAt) " +
+            "FROM Driver d LEFT JOIN d.user u";
 
     List<Driver> findByStatus(Driver.DriverStatus status);
 
@@ -21,4 +36,41 @@ public interface DriverRepository extends JpaRepository<Driver, Long> {
 
     @Query("SELECT d FROM Driver d JOIN FETCH d.user WHERE d.status = :status")
     List<Driver> findByStatusWithUser(Driver.DriverStatus status);
+
+    @Query(DRIVER_RESPONSE_SELECT + " WHERE d.id = :id")
+    Optional<DriverResponse> findResponseById(Long id);
+
+    @Query(DRIVER_RESPONSE_SELECT + " WHERE d.userId = :userId")
+    Optional<DriverResponse> findResponseByUserId(Long userId);
+
+    @Query(DRIVER_RESPONSE_SELECT + " ORDER BY d.id")
+    List<DriverResponse> findAllResponses();
+
+    @Query(DRIVER_RESPONSE_SELECT + " WHERE d.status = :status ORDER BY d.id")
+    List<DriverResponse> findResponsesByStatus(Driver.DriverStatus status);
+
+    @Query(DRIVER_RESPONSE_SELECT + " WHERE d.status = 'ONLINE' AND d.currentOrderId IS NULL ORDER BY d.id")
+    List<DriverResponse> findAvailableResponses();
+
+    @Query(DRIVER_RESPONSE_SELECT + " WHERE d.id IN :ids ORDER BY d.id")
+    List<DriverResponse> findResponsesByIdIn(Collection<Long> ids);
+
+    @Query(DRIVER_RESPONSE_SELECT + " ORDER BY d.rating DESC NULLS LAST, d.id")
+    List<DriverResponse> findTopByRating(Limit limit);
+
+    @Query(DRIVER_RESPONSE_SELECT + " ORDER BY d.totalDeliveries DESC NULLS LAST, d.id")
+    List<DriverResponse> findTopByDeliveries(Limit limit);
+
+    /**
+     * Keyset page: drivers with id greater than the cursor, in id order
+     */
+    @Query(DRIVER_RESPONSE_SELECT + " WHERE d.id > :afterId ORDER BY d.id")
+    List<DriverResponse> findResponsesAfter(Long afterId, Limit limit);
+
+    /**
+     * All drivers as a cursor-backed stream; must be consumed inside a transaction and closed
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DRIVER_RESPONSE_SELECT + " ORDER BY d.id")
+    Stream<DriverResponse> streamAllResponses();
 }
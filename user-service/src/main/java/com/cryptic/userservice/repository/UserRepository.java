@@ -1,15 +1,33 @@
 package com.cryptic.userservice.repository;
 
+import com.cryptic.userservice.dto.response.UserResponse;
 import com.cryptic.userservice.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Users mapped straight into the response DTO
+     * DTOs are not managed entities, so large reads do not grow the persistence context
+     */
+    String USER_RESPONSE_SELECT = "SELECT new com.cryptic.userservice.dto.response.UserResponse(" +
+            "u.id, u.name, u.email, u.phone, CAST(u.role AS String), CAST(u.status AS String), " +
+            "u.createdAt, u.updatedAt) FROM User u";
+
     Optional<User> findByEmail(String email);
 
     Optional<User> findByPhone(String phone);
@@ -24,4 +42,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u WHERE u.role = :role AND u.status = :status")
     List<User> findByRoleAndStatus(User.Role role, User.UserStatus status);
-}
\ No newline at end of file
+
+    /**
+     * Swap the password hash only if it is still the one the caller verified against
+     * Lets the BCrypt work happen outside any transaction without losing a concurrent change
+     * @return 1 if updated, 0 if the user is gone or the hash changed meanwhile
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.hashedPassword = :newHash, u.updatedAt = :updatedAt " +
+            "WHERE u.id = :id AND u.hashedPassword = :expectedHash")
+    int updateHashedPassword(Long id, String expectedHash, String newHash, LocalDateTime updatedAt);
+
+    @Query(USER_RESPONSE_SELECT + " WHERE u.id IN :ids")
+    List<UserResponse> findResponsesByIdIn(Collection<Long> ids);
+
+    /**
+     * Keyset page: rows with id greater than the cursor, in id order
+     */
+    @Query(USER_RESPONSE_SELECT + " WHERE u.id > :afterId ORDER BY u.id")
+    List<UserResponse> findResponsesAfter(Long afterId, Limit limit);
+
+    /**
+     * All users as a cursor-backed stream; must be consumed inside a transaction and closed
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(USER_RESPONSE_SELECT + " ORDER BY u.id")
+    Stream<UserResponse> streamAllResponses();
+}
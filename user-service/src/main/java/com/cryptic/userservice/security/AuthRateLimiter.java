@@ -0,0 +1,99 @@
+package com.cryptic.userservice.security;
+
+import com.cryptic.userservice.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory rate limiting for login and registration, keyed by email and client IP,
+ * and for batch token validation, keyed by client IP
+ * Checked before any database lookup or BCrypt work, so brute-force traffic is
+ * turned away for the price of a map lookup and a CAS. Memory is bounded by
+ * maxKeys and idle buckets are evicted. Rejections are counted in
+ * auth.rate_limit.rejected; the WARN log is at most one summary line per minute,
+ * so an attack does not also flood the logs.
+ */
+@Component
+@Slf4j
+public class AuthRateLimiter {
+
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> buckets;
+    private final AtomicLong nextWarnNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder rejectedSinceWarn = new LongAdder();
+
+    public AuthRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+    }
+
+    /**
+     * @throws TooManyRequestsException if the IP or the email is over its login limit
+     */
+    public void checkLogin(String clientIp, String email) {
+        check("login", "ip", clientIp, properties.getLoginPerIp());
+        check("login", "email", normalize(email), properties.getLoginPerEmail());
+    }
+
+    /**
+     * @throws TooManyRequestsException if the IP or the email is over its registration limit
+     */
+    public void checkRegister(String clientIp, String email) {
+        check("register", "ip", clientIp, properties.getRegisterPerIp());
+        check("register", "email", normalize(email), properties.getRegisterPerEmail());
+    }
+
+    /**
+     * @throws TooManyRequestsException if the IP is over its batch token validation limit
+     */
+    public void checkValidateBatch(String clientIp) {
+        check("validate-batch", "ip", clientIp, properties.getValidateBatchPerIp());
+    }
+
+    private void check(String endpoint, String keyType, String value, RateLimitProperties.Limit limit) {
+        if (!properties.isEnabled() || value == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(endpoint + ':' + keyType + ':' + value,
+                key -> new TokenBucket(limit.getCapacity(), limit.getRefillPeriod().toNanos(), now));
+
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            meterRegistry.counter("auth.rate_limit.rejected", "endpoint", endpoint, "key", keyType).increment();
+            logRejection(endpoint, keyType, value, now);
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            throw new TooManyRequestsException("Too many attempts. Please try again later.", retryAfterSeconds);
+        }
+    }
+
+    private void logRejection(String endpoint, String keyType, String value, long now) {
+        log.debug("Rate limit exceeded for {} by {} {}", endpoint, keyType, value);
+        rejectedSinceWarn.increment();
+        long next = nextWarnNanos.get();
+        if (now - next >= 0 && nextWarnNanos.compareAndSet(next, now + WARN_INTERVAL_NANOS)) {
+            log.warn("Auth rate limit rejected {} requests in the last minute, latest for {} by {}",
+                    rejectedSinceWarn.sumThenReset(), endpoint, keyType);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
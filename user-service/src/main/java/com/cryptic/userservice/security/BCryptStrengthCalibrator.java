@@ -0,0 +1,95 @@
+package com.cryptic.userservice.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks the BCrypt work factor for this machine
+ * Measures hash time at startup and chooses the highest cost whose hash stays
+ * within the configured latency target, so login latency stays predictable
+ * across hardware. A fixed strength can still be forced through configuration.
+ */
+@Component
+@Slf4j
+public class BCryptStrengthCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "Calibration@123";
+    private static final int SAMPLES = 3;
+
+    private final int strength;
+
+    public BCryptStrengthCalibrator(
+            @Value("${security.password-hashing.bcrypt.strength:0}") int fixedStrength,
+            @Value("${security.password-hashing.bcrypt.target-latency-ms:250}") long targetLatencyMs,
+            @Value("${security.password-hashing.bcrypt.min-strength:10}") int minStrength,
+            @Value("${security.password-hashing.bcrypt.max-strength:14}") int maxStrength) {
+        if (fixedStrength > 0) {
+            this.strength = fixedStrength;
+            log.info("Using configured BCrypt strength {}", strength);
+        } else {
+            this.strength = calibrate(targetLatencyMs, minStrength, maxStrength);
+        }
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    /**
+     * Each extra cost step doubles the work, so one measurement at the minimum
+     * cost predicts the rest; the prediction is then checked once and stepped
+     * down if the machine turns out slower than expected
+     */
+    private static int calibrate(long targetLatencyMs, int minStrength, int maxStrength) {
+        long baseMs = measureMillis(minStrength);
+
+        int candidate = minStrength;
+        while (candidate < maxStrength && baseMs << (candidate + 1 - minStrength) <= targetLatencyMs) {
+            candidate++;
+        }
+
+        long measuredMs = candidate == minStrength ? baseMs : measureMillis(candidate);
+        while (candidate > minStrength && measuredMs > targetLatencyMs) {
+            candidate--;
+            measuredMs = measureMillis(candidate);
+        }
+
+        log.info("Calibrated BCrypt strength {} ({} ms per hash, target {} ms)",
+                candidate, measuredMs, targetLatencyMs);
+        return candidate;
+    }
+
+    private static long measureMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD); // warm-up
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+
+    /**
+     * Read the cost from a BCrypt hash such as $2a$12$...
+     * @return The cost, or -1 if the value is not a BCrypt hash
+     */
+    public static int strengthOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int costStart = encodedPassword.indexOf('$', 1) + 1;
+        if (costStart <= 0 || costStart + 2 > encodedPassword.length()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(costStart, costStart + 2));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
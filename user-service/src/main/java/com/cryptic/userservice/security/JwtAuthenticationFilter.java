@@ -0,0 +1,81 @@
+package com.cryptic.userservice.security;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Stateless bearer token authentication
+ * Builds the SecurityContext purely from the verified access token claims;
+ * the database is never consulted. The principal is the TokenClaims record.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String BEARER_PREFIX = "Bearer ";
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String token = resolveToken(request.getHeader(HttpHeaders.AUTHORIZATION));
+
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            try {
+                TokenClaims claims = verifiedTokenCache.verify(token);
+                if (claims.isAccessToken() && claims.role() != null) {
+                    authenticate(claims, request);
+                } else {
+                    log.debug("Rejected non-access token for user {}", claims.userId());
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Leave the context empty; the entry point answers 401
+                log.debug("Invalid bearer token: {}", e.getMessage());
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Strip the Bearer prefix from an Authorization header value
+     * @param header Authorization header (may be null)
+     * @return Raw token or null if the header is not a bearer token
+     */
+    public static String resolveToken(String header) {
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = header.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    private void authenticate(TokenClaims claims, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                claims, null, List.of(new SimpleGrantedAuthority("ROLE_" + claims.role())));
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+    }
+}
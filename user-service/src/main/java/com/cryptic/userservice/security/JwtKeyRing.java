@@ -0,0 +1,158 @@
+package com.cryptic.userservice.security;
+
+import io.jsonwebtoken.Jwts;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.*;
+
+/**
+ * RSA keys used to sign and verify JWTs, indexed by kid
+ * Also renders the public half as a JWKS document so other services can
+ * verify tokens locally instead of calling back into user-service
+ */
+@Component
+@Slf4j
+public class JwtKeyRing {
+
+    public static final String ALGORITHM = "RS256";
+
+    private final String activeKeyId;
+    private final PrivateKey activeSigningKey;
+    private final Map<String, RSAPublicKey> verificationKeys;
+    private final Map<String, Object> jwks;
+
+    public JwtKeyRing(JwtSigningProperties properties) {
+        Map<String, RSAPublicKey> publicKeys = new LinkedHashMap<>();
+        PrivateKey signingKey = null;
+        String keyId = properties.getActiveKeyId();
+
+        if (properties.getKeys().isEmpty()) {
+            if (!properties.isAllowEphemeralKey()) {
+                throw new IllegalStateException("No JWT signing keys configured: set jwt.signing.keys and "
+                        + "jwt.signing.active-key-id, or jwt.signing.allow-ephemeral-key=true for single-node development");
+            }
+            // Development fallback: tokens will not survive a restart nor verify on other replicas
+            KeyPair keyPair = Jwts.SIG.RS256.keyPair().build();
+            keyId = "ephemeral-" + UUID.randomUUID();
+            signingKey = keyPair.getPrivate();
+            publicKeys.put(keyId, (RSAPublicKey) keyPair.getPublic());
+            log.warn("No JWT signing keys configured, generated ephemeral key {}", keyId);
+        } else {
+            for (JwtSigningProperties.Key key : properties.getKeys()) {
+                if (key.getId() == null || key.getId().isBlank()) {
+                    throw new IllegalStateException("Every jwt.signing.keys entry needs an id");
+                }
+                PrivateKey privateKey = key.getPrivateKey() != null ? parsePrivateKey(key.getPrivateKey()) : null;
+                RSAPublicKey publicKey = key.getPublicKey() != null
+                        ? parsePublicKey(key.getPublicKey())
+                        : derivePublicKey(key.getId(), privateKey);
+                publicKeys.put(key.getId(), publicKey);
+                if (key.getId().equals(keyId)) {
+                    signingKey = privateKey;
+                }
+            }
+            if (signingKey == null) {
+                throw new IllegalStateException(
+                        "jwt.signing.active-key-id '" + keyId + "' does not name a key with a private key");
+            }
+        }
+
+        this.activeKeyId = keyId;
+        this.activeSigningKey = signingKey;
+        this.verificationKeys = Collections.unmodifiableMap(publicKeys);
+        this.jwks = Map.of("keys", publicKeys.entrySet().stream()
+                .map(entry -> toJwk(entry.getKey(), entry.getValue()))
+                .toList());
+
+        log.info("JWT key ring loaded: active key {}, {} verification key(s)", activeKeyId, verificationKeys.size());
+    }
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public PrivateKey getActiveSigningKey() {
+        return activeSigningKey;
+    }
+
+    /**
+     * @param keyId kid header of a token
+     * @return Public key for that kid, or null if the kid is unknown
+     */
+    public RSAPublicKey getVerificationKey(String keyId) {
+        return verificationKeys.get(keyId);
+    }
+
+    /**
+     * @return RFC 7517 JWK Set of all verification keys
+     */
+    public Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    private static Map<String, Object> toJwk(String keyId, RSAPublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("kid", keyId);
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM);
+        jwk.put("n", base64Url(key.getModulus()));
+        jwk.put("e", base64Url(key.getPublicExponent()));
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // Drop the sign byte BigInteger adds for positive values with the high bit set
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static PrivateKey parsePrivateKey(String encoded) {
+        try {
+            return KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(decode(encoded)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid RSA private key in jwt.signing.keys", e);
+        }
+    }
+
+    private static RSAPublicKey parsePublicKey(String encoded) {
+        try {
+            return (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(decode(encoded)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid RSA public key in jwt.signing.keys", e);
+        }
+    }
+
+    private static RSAPublicKey derivePublicKey(String keyId, PrivateKey privateKey) {
+        if (!(privateKey instanceof RSAPrivateCrtKey crtKey)) {
+            throw new IllegalStateException("Key " + keyId + " needs a public-key or an RSA CRT private-key");
+        }
+        try {
+            return (RSAPublicKey) KeyFactory.getInstance("RSA")
+                    .generatePublic(new RSAPublicKeySpec(crtKey.getModulus(), crtKey.getPublicExponent()));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot derive public key for " + keyId, e);
+        }
+    }
+
+    private static byte[] decode(String encoded) {
+        String base64 = encoded
+                .replaceAll("-----[A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
@@ -0,0 +1,48 @@
+package com.cryptic.userservice.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RS256 key ring configuration (jwt.signing.*)
+ * The active key signs new tokens; every listed key verifies. Keep a retired key
+ * in the list (public key only is enough) until the last token it signed expires.
+ */
+@Data
+@ConfigurationProperties(prefix = "jwt.signing")
+public class JwtSigningProperties {
+
+    /**
+     * kid of the key used to sign new tokens
+     */
+    private String activeKeyId;
+
+    /**
+     * Generate a throwaway key when no keys are configured
+     * Single-node development only: tokens do not survive a restart and fail on other replicas
+     */
+    private boolean allowEphemeralKey = false;
+
+    private List<Key> keys = new ArrayList<>();
+
+    @Data
+    public static class Key {
+
+        private String id;
+
+        /**
+         * Base64 PKCS#8 RSA private key, PEM armour optional
+         * Only required for the active key
+         */
+        private String privateKey;
+
+        /**
+         * Base64 X.509 RSA public key, PEM armour optional
+         * Derived from the private key when omitted
+         */
+        private String publicKey;
+    }
+}
@@ -2,20 +2,46 @@ package com.cryptic.userservice.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    static final String CLAIM_EMAIL = "email";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TYPE = "type";
+
+    private final JwtKeyRing keyRing;
+
+    /**
+     * Legacy HS256 tokens (no kid header) from before the RS256 switch. Off by default;
+     * when enabled, only tokens issued before the cutoff are accepted, so the shared
+     * secret cannot be used to mint new ones.
+     */
+    @Value("${jwt.legacy.enabled:false}")
+    private boolean legacyEnabled;
+
+    @Value("${jwt.legacy.secret:}")
+    private String legacySecret;
+
+    /**
+     * ISO-8601 instant; set to the RS256 deploy time
+     */
+    @Value("${jwt.legacy.issued-before:}")
+    private String legacyIssuedBefore;
 
     @Value("${jwt.access-token-expiration}")
     private long accessTokenExpiration;
@@ -23,51 +49,93 @@ public class JwtUtil {
     @Value("${jwt.refresh-token-expiration}")
     private long refreshTokenExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // Built once; both are immutable and thread-safe
+    private SecretKey legacyKey;
+    private Instant legacyCutoff;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        if (legacyEnabled) {
+            if (legacySecret == null || legacySecret.isBlank()
+                    || legacyIssuedBefore == null || legacyIssuedBefore.isBlank()) {
+                throw new IllegalStateException(
+                        "jwt.legacy.enabled requires jwt.legacy.secret and jwt.legacy.issued-before");
+            }
+            legacyKey = Keys.hmacShaKeyFor(legacySecret.getBytes(StandardCharsets.UTF_8));
+            legacyCutoff = Instant.parse(legacyIssuedBefore);
+            log.warn("Accepting legacy HS256 tokens issued before {}", legacyCutoff);
+        }
+        parser = Jwts.parser()
+                .keyLocator(new KeyRingLocator())
+                .build();
     }
 
     public String generateAccessToken(Long userId, String email, String role) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("email", email);
-        claims.put("role", role);
+        claims.put(CLAIM_EMAIL, email);
+        claims.put(CLAIM_ROLE, role);
+        claims.put(CLAIM_TYPE, TokenClaims.TokenType.ACCESS.name());
 
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .header().keyId(keyRing.getActiveKeyId()).and()
                 .subject(userId.toString())
                 .claims(claims)
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + accessTokenExpiration))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + accessTokenExpiration))
+                .signWith(keyRing.getActiveSigningKey(), Jwts.SIG.RS256)
                 .compact();
     }
 
     public String generateRefreshToken(Long userId) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .header().keyId(keyRing.getActiveKeyId()).and()
                 .subject(userId.toString())
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + refreshTokenExpiration))
-                .signWith(getSigningKey())
+                .claim(CLAIM_TYPE, TokenClaims.TokenType.REFRESH.name())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + refreshTokenExpiration))
+                .signWith(keyRing.getActiveSigningKey(), Jwts.SIG.RS256)
                 .compact();
     }
 
+    /**
+     * Verify the signature and expiry of a token once and return its claims
+     * Prefer this over the extractXxx helpers when more than one claim is needed
+     * @param token Compact JWS
+     * @return Typed claims of the verified token
+     * @throws ExpiredJwtException if the token has expired
+     * @throws JwtException if the token is malformed or the signature is invalid
+     * @throws IllegalArgumentException if the token is null or blank
+     */
+    public TokenClaims parseToken(String token) {
+        return TokenClaims.from(extractClaims(token));
+    }
+
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        Jws<Claims> jws = parser.parseSignedClaims(token);
+        Claims claims = jws.getPayload();
+        if (jws.getHeader().getKeyId() == null) {
+            // Only reachable with legacy tokens enabled; the locator rejects a missing kid otherwise
+            Date issuedAt = claims.getIssuedAt();
+            if (issuedAt == null || issuedAt.toInstant().isAfter(legacyCutoff)) {
+                throw new UnsupportedJwtException("Legacy token issued after the RS256 cutoff");
+            }
+        }
+        return claims;
     }
 
     public Long extractUserId(String token) {
-        return Long.parseLong(extractClaims(token).getSubject());
+        return parseToken(token).userId();
     }
 
     public String extractEmail(String token) {
-        return extractClaims(token).get("email", String.class);
+        return parseToken(token).email();
     }
 
     public String extractRole(String token) {
-        return extractClaims(token).get("role", String.class);
+        return parseToken(token).role();
     }
 
     public boolean validateToken(String token) {
@@ -82,9 +150,36 @@ public class JwtUtil {
 
     public boolean isTokenExpired(String token) {
         try {
-            return extractClaims(token).getExpiration().before(new Date());
+            // The parser rejects expired tokens, so a successful parse means not expired
+            extractClaims(token);
+            return false;
         } catch (JwtException e) {
             return true;
         }
     }
+
+    /**
+     * Picks the verification key from the kid header
+     * Tokens without a kid are legacy HS256 tokens, accepted only when jwt.legacy.enabled is set.
+     * jjwt rejects a key that does not fit the alg header, so the RSA public key
+     * cannot be used as an HS256 secret to forge a token.
+     */
+    private class KeyRingLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String keyId = header.getKeyId();
+            if (keyId == null) {
+                if (legacyKey == null) {
+                    throw new UnsupportedJwtException("Token has no kid header");
+                }
+                return legacyKey;
+            }
+            Key key = keyRing.getVerificationKey(keyId);
+            if (key == null) {
+                throw new UnsupportedJwtException("Unknown signing key: " + keyId);
+            }
+            return key;
+        }
+    }
 }
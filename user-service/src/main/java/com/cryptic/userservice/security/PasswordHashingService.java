@@ -0,0 +1,163 @@
+package com.cryptic.userservice.security;
+
+import com.cryptic.userservice.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt work on a dedicated, bounded executor instead of request threads
+ * At most one hash per core runs at a time and a fixed number may wait; beyond
+ * that callers get a 503 with Retry-After right away, so a credential-stuffing
+ * burst cannot starve the rest of the API of CPU or Tomcat threads.
+ */
+@Component
+@Slf4j
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final int targetStrength;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final int backgroundQueueLimit;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+    private final Counter backgroundSkippedCounter;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  BCryptStrengthCalibrator strengthCalibrator,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.password-hashing.threads:0}") int threads,
+                                  @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.password-hashing.retry-after-seconds:1}") long retryAfterSeconds,
+                                  @Value("${security.password-hashing.background-queue-limit:8}") int backgroundQueueLimit) {
+        this.passwordEncoder = passwordEncoder;
+        this.targetStrength = strengthCalibrator.getStrength();
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.backgroundQueueLimit = backgroundQueueLimit;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("password.hashing.duration")
+                .description("BCrypt execution time")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing.duration")
+                .description("BCrypt execution time")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Hash requests rejected because the queue was full")
+                .register(meterRegistry);
+        this.backgroundSkippedCounter = Counter.builder("password.hashing.background.skipped")
+                .description("Background rehashes skipped because foreground requests were queued")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Hash requests waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hash requests currently running")
+                .register(meterRegistry);
+
+        log.info("Password hashing executor: {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Hash a raw password on the hashing executor
+     * @throws ServiceUnavailableException if the executor is saturated
+     */
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Check a raw password against a stored hash on the hashing executor
+     * @throws ServiceUnavailableException if the executor is saturated
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Hash a raw password in the background and hand the hash to a consumer on the same worker
+     * Meant for optional work such as rehashing: it is skipped when more than
+     * background-queue-limit requests are already waiting, so it never pushes logins into 503s
+     * @param store Receives the new hash, e.g. to write it to the database
+     * @return Future that completes after store ran, failed with ServiceUnavailableException if skipped
+     */
+    public CompletableFuture<Void> encodeInBackground(CharSequence rawPassword, Consumer<String> store) {
+        if (executor.getQueue().size() >= backgroundQueueLimit) {
+            backgroundSkippedCounter.increment();
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("Password hashing is busy", retryAfterSeconds));
+        }
+        try {
+            return CompletableFuture.runAsync(
+                    () -> store.accept(encodeTimer.record(() -> passwordEncoder.encode(rawPassword))), executor);
+        } catch (RejectedExecutionException e) {
+            backgroundSkippedCounter.increment();
+            return CompletableFuture.failedFuture(
+                    new ServiceUnavailableException("Password hashing queue is full", retryAfterSeconds));
+        }
+    }
+
+    /**
+     * Only upgrades: the calibrated target can differ between nodes and boots, and
+     * rehashing down would flip hashes between costs and weaken them
+     * @return true if the hash was made with a lower BCrypt cost than the current target
+     */
+    public boolean needsRehash(String encodedPassword) {
+        int strength = BCryptStrengthCalibrator.strengthOf(encodedPassword);
+        return strength > 0 && strength < targetStrength;
+    }
+
+    private <T> T submit(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Password hashing queue is full, rejecting request");
+            throw new ServiceUnavailableException(
+                    "Too many authentication requests. Please retry shortly.", retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,58 @@
+package com.cryptic.userservice.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limits for the auth endpoints (security.rate-limit.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on tracked emails + IPs; least recently used buckets are dropped first
+     */
+    private long maxKeys = 100_000;
+
+    /**
+     * Buckets untouched for this long are evicted (they would be full again anyway)
+     */
+    private Duration idleTimeout = Duration.ofMinutes(15);
+
+    private Limit loginPerEmail = new Limit(5, Duration.ofMinutes(1));
+    private Limit loginPerIp = new Limit(20, Duration.ofMinutes(1));
+    private Limit registerPerEmail = new Limit(3, Duration.ofMinutes(10));
+    private Limit registerPerIp = new Limit(10, Duration.ofMinutes(10));
+
+    /**
+     * Each call may carry up to 1000 tokens, so this bounds signature checks per IP
+     */
+    private Limit validateBatchPerIp = new Limit(60, Duration.ofMinutes(1));
+
+    @Data
+    public static class Limit {
+
+        /**
+         * Requests allowed in a burst
+         */
+        private int capacity;
+
+        /**
+         * Time for an exhausted bucket to refill completely
+         */
+        private Duration refillPeriod;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.cryptic.userservice.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket
+ * Kept in GCRA form: the whole state is one "theoretical arrival time" in an
+ * AtomicLong, so acquiring is a single CAS with no lock and no separate refill
+ * step. Behaves like a bucket of {@code capacity} tokens refilled at a fixed rate.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * @param capacity Maximum burst size
+     * @param refillPeriodNanos Time to refill the whole bucket
+     */
+    public TokenBucket(int capacity, long refillPeriodNanos, long nowNanos) {
+        if (capacity < 1 || refillPeriodNanos < 1) {
+            throw new IllegalArgumentException("capacity and refill period must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(refillPeriodNanos / capacity, 1);
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Take one token if available
+     * @return 0 if a token was taken, otherwise nanoseconds until the next one is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrivalTime.get();
+            long start = Math.max(tat, nowNanos);
+            long waitNanos = start - nowNanos - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.cryptic.userservice.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * Immutable, typed view of a verified JWT
+ * Produced once per token by JwtUtil.parseToken so callers never re-parse
+ * or re-verify the same token to read another claim
+ */
+public record TokenClaims(
+        Long userId,
+        String email,
+        String role,
+        TokenType type,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+
+    public enum TokenType {
+        ACCESS, REFRESH
+    }
+
+    public boolean isAccessToken() {
+        return type == TokenType.ACCESS;
+    }
+
+    public boolean isRefreshToken() {
+        return type == TokenType.REFRESH;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
+
+    static TokenClaims from(Claims claims) {
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+        return new TokenClaims(
+                Long.parseLong(claims.getSubject()),
+                claims.get(JwtUtil.CLAIM_EMAIL, String.class),
+                role,
+                resolveType(claims.get(JwtUtil.CLAIM_TYPE, String.class), role),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
+    /**
+     * Tokens issued before the type claim existed are told apart by the role claim,
+     * which only access tokens carry
+     */
+    private static TokenType resolveType(String type, String role) {
+        if (type != null) {
+            return TokenType.valueOf(type);
+        }
+        return role != null ? TokenType.ACCESS : TokenType.REFRESH;
+    }
+}
@@ -5,15 +5,22 @@ import com.cryptic.userservice.dto.request.RegisterRequest;
 import com.cryptic.userservice.dto.response.AuthResponse;
 import com.cryptic.userservice.entity.Driver;
 import com.cryptic.userservice.entity.User;
+import com.cryptic.userservice.event.DriverChangedEvent;
 import com.cryptic.userservice.exception.*;
 import com.cryptic.userservice.repository.DriverRepository;
 import com.cryptic.userservice.repository.UserRepository;
 import com.cryptic.userservice.security.JwtUtil;
+import com.cryptic.userservice.security.PasswordHashingService;
+import com.cryptic.userservice.security.TokenClaims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
@@ -22,10 +29,16 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final DriverRepository driverRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
-
-    @Transactional
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Register a new user (and driver profile for DRIVER role)
+     * Hashing runs before the write transaction opens, so no pooled connection
+     * is held during the BCrypt work
+     */
     public AuthResponse register(RegisterRequest request) {
         log.info("Registering new user: {}", request.getEmail());
 
@@ -37,20 +50,7 @@ public class AuthService {
             throw new DuplicateResourceException("Phone number already exists: " + request.getPhone());
         }
 
-        // Create user
-        User user = User.builder()
-                .name(request.getName())
-                .email(request.getEmail())
-                .phone(request.getPhone())
-                .hashedPassword(passwordEncoder.encode(request.getPassword()))
-                .role(request.getRole())
-                .status(User.UserStatus.ACTIVE)
-                .build();
-
-        user = userRepository.save(user);
-        log.info("User created successfully with ID: {}", user.getId());
-
-        // Create driver profile if role is DRIVER
+        // Validate driver fields up front, before paying for the hash
         if (request.getRole() == User.Role.DRIVER) {
             if (request.getLicenseNo() == null || request.getLicenseNo().isBlank()) {
                 throw new ValidationException("License number is required for drivers");
@@ -58,18 +58,38 @@ public class AuthService {
             if (driverRepository.existsByLicenseNo(request.getLicenseNo())) {
                 throw new DuplicateResourceException("License number already exists: " + request.getLicenseNo());
             }
-
-            Driver driver = Driver.builder()
-                    .userId(user.getId())
-                    .licenseNo(request.getLicenseNo())
-                    .vehicleInfo(request.getVehicleInfo())
-                    .status(Driver.DriverStatus.OFFLINE)
-                    .build();
-
-            driverRepository.save(driver);
-            log.info("Driver profile created for user ID: {}", user.getId());
         }
 
+        String hashedPassword = passwordHashingService.encode(request.getPassword());
+
+        User user = transactionTemplate.execute(status -> {
+            // Create user
+            User created = userRepository.save(User.builder()
+                    .name(request.getName())
+                    .email(request.getEmail())
+                    .phone(request.getPhone())
+                    .hashedPassword(hashedPassword)
+                    .role(request.getRole())
+                    .status(User.UserStatus.ACTIVE)
+                    .build());
+            log.info("User created successfully with ID: {}", created.getId());
+
+            // Create driver profile if role is DRIVER
+            if (request.getRole() == User.Role.DRIVER) {
+                Driver driver = Driver.builder()
+                        .userId(created.getId())
+                        .licenseNo(request.getLicenseNo())
+                        .vehicleInfo(request.getVehicleInfo())
+                        .status(Driver.DriverStatus.OFFLINE)
+                        .build();
+
+                driver = driverRepository.save(driver);
+                eventPublisher.publishEvent(new DriverChangedEvent(driver.getId()));
+                log.info("Driver profile created for user ID: {}", created.getId());
+            }
+            return created;
+        });
+
         // Generate tokens
         String accessToken = jwtUtil.generateAccessToken(
                 user.getId(), user.getEmail(), user.getRole().name()
@@ -87,14 +107,17 @@ public class AuthService {
                 .build();
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Authenticate with email and password
+     * Not transactional: the lookup releases its connection before the BCrypt check
+     */
     public AuthResponse login(LoginRequest request) {
         log.info("Login attempt for email: {}", request.getEmail());
 
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new AuthenticationException("Invalid email or password"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getHashedPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getHashedPassword())) {
             throw new AuthenticationException("Invalid email or password");
         }
 
@@ -104,6 +127,10 @@ public class AuthService {
 
         log.info("User logged in successfully: {}", user.getEmail());
 
+        if (passwordHashingService.needsRehash(user.getHashedPassword())) {
+            rehashPassword(user.getId(), user.getHashedPassword(), request.getPassword());
+        }
+
         String accessToken = jwtUtil.generateAccessToken(
                 user.getId(), user.getEmail(), user.getRole().name()
         );
@@ -120,19 +147,29 @@ public class AuthService {
                 .build();
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Issue new tokens from a refresh token
+     * Not transactional: token signing happens after the single lookup has released its connection
+     */
     public AuthResponse refreshToken(String refreshToken) {
         log.info("Refreshing access token");
 
-        if (!jwtUtil.validateToken(refreshToken)) {
+        // Verify once; the parser already rejects expired tokens
+        TokenClaims claims;
+        try {
+            claims = jwtUtil.parseToken(refreshToken);
+        } catch (ExpiredJwtException e) {
+            throw new AuthenticationException("Refresh token has expired");
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Invalid refresh token: {}", e.getMessage());
             throw new AuthenticationException("Invalid refresh token");
         }
 
-        if (jwtUtil.isTokenExpired(refreshToken)) {
-            throw new AuthenticationException("Refresh token has expired");
+        if (!claims.isRefreshToken()) {
+            throw new AuthenticationException("Invalid refresh token");
         }
 
-        Long userId = jwtUtil.extractUserId(refreshToken);
+        Long userId = claims.userId();
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
@@ -155,4 +192,23 @@ public class AuthService {
                 .phone(user.getPhone())
                 .build();
     }
+
+    /**
+     * Upgrade a stored hash to the current BCrypt cost in the background
+     * The login response does not wait for it; if logins are queued for hashing or
+     * the password changed meanwhile, the rehash is skipped and retried on a later login
+     */
+    private void rehashPassword(Long userId, String currentHash, String rawPassword) {
+        passwordHashingService.encodeInBackground(rawPassword, newHash -> {
+                    int updated = userRepository.updateHashedPassword(
+                            userId, currentHash, newHash, LocalDateTime.now());
+                    if (updated > 0) {
+                        log.info("Password hash upgraded to current cost for user: {}", userId);
+                    }
+                })
+                .exceptionally(ex -> {
+                    log.warn("Password rehash skipped for user {}: {}", userId, ex.getMessage());
+                    return null;
+                });
+    }
 }
@@ -0,0 +1,385 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.request.DispatchOrderRequest;
+import com.cryptic.userservice.dto.response.DispatchStatusResponse;
+import com.cryptic.userservice.dto.response.DispatchSubmitResponse;
+import com.cryptic.userservice.dto.response.DriverResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Matches queued orders to available drivers inside the service
+ * Worker threads take orders from a bounded queue, rank candidates from the in-memory
+ * driver indexes by weighted score, and claim the best one. Claims go through a
+ * concurrent set first, so workers running in parallel skip a driver another worker is
+ * already trying instead of racing for it, and then through the conditional UPDATE of
+ * DriverService.tryAssignOrder, which stays the final word against any other writer.
+ * Orders with no free driver, or whose claim failed in the database, are retried
+ * after a delay, up to maxAttempts. Every order holds one of queueCapacity slots from
+ * submit until it finishes, so orders waiting for a retry count against the capacity too.
+ */
+@Component
+@Slf4j
+public class DispatchEngine {
+
+    private final DriverService driverService;
+    private final DriverAvailabilityIndex availabilityIndex;
+    private final DriverSpatialIndex spatialIndex;
+    private final DispatchProperties properties;
+
+    private final BlockingQueue<PendingOrder> queue;
+    private final Semaphore slots;
+    private final Set<Long> claimedDrivers = ConcurrentHashMap.newKeySet();
+    private final Cache<Long, DispatchStatusResponse> results;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final int workerCount;
+    private volatile boolean running;
+
+    private final Counter queuedCounter;
+    private final Counter rejectedCounter;
+    private final Counter assignedCounter;
+    private final Counter unmatchedCounter;
+    private final Counter retriedCounter;
+    private final Counter claimSkippedCounter;
+    private final Counter staleCandidateCounter;
+    private final Counter assignFailedCounter;
+    private final Timer matchLatency;
+    private final Timer matchDuration;
+
+    public DispatchEngine(DriverService driverService,
+                          DriverAvailabilityIndex availabilityIndex,
+                          DriverSpatialIndex spatialIndex,
+                          DispatchProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.driverService = driverService;
+        this.availabilityIndex = availabilityIndex;
+        this.spatialIndex = spatialIndex;
+        this.properties = properties;
+        this.queue = new LinkedBlockingQueue<>(properties.getQueueCapacity());
+        this.slots = new Semaphore(properties.getQueueCapacity());
+        this.results = Caffeine.newBuilder()
+                .maximumSize(Math.max(properties.getQueueCapacity() * 10L, 10_000))
+                .expireAfterWrite(Duration.ofMinutes(properties.getResultRetentionMinutes()))
+                .build();
+
+        this.workerCount = properties.getWorkers() > 0
+                ? properties.getWorkers() : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory workerFactory = new CustomizableThreadFactory("dispatch-worker-");
+        workerFactory.setDaemon(true);
+        this.workers = Executors.newFixedThreadPool(workerCount, workerFactory);
+        CustomizableThreadFactory retryFactory = new CustomizableThreadFactory("dispatch-retry-");
+        retryFactory.setDaemon(true);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(retryFactory);
+
+        this.queuedCounter = ordersCounter(meterRegistry, "queued");
+        this.rejectedCounter = ordersCounter(meterRegistry, "rejected");
+        this.assignedCounter = ordersCounter(meterRegistry, "assigned");
+        this.unmatchedCounter = ordersCounter(meterRegistry, "unmatched");
+        this.retriedCounter = ordersCounter(meterRegistry, "retried");
+        this.claimSkippedCounter = Counter.builder("dispatch.claim.skipped")
+                .description("Candidates skipped because another worker was claiming them")
+                .register(meterRegistry);
+        this.staleCandidateCounter = Counter.builder("dispatch.claim.lost")
+                .description("Claims that lost the conditional UPDATE because the driver was no longer free")
+                .register(meterRegistry);
+        this.assignFailedCounter = Counter.builder("dispatch.claim.failed")
+                .description("Claims that failed in the database and sent the order back for retry")
+                .register(meterRegistry);
+        this.matchLatency = Timer.builder("dispatch.match.latency")
+                .description("Time from enqueue to assignment")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.matchDuration = Timer.builder("dispatch.match.duration")
+                .description("Time of one matching round for one order")
+                .register(meterRegistry);
+        Gauge.builder("dispatch.queue.depth", queue, BlockingQueue::size)
+                .description("Orders waiting for a dispatch worker")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::runWorker);
+        }
+        log.info("Dispatch engine started with {} workers, queue capacity {}",
+                workerCount, properties.getQueueCapacity());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        retryScheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Queue orders for matching
+     * Orders already queued or assigned are reported as duplicates; orders that do not
+     * fit in the queue are reported as rejected and can be resubmitted
+     */
+    public DispatchSubmitResponse submit(List<DispatchOrderRequest> orders) {
+        List<Long> duplicates = new ArrayList<>();
+        List<Long> rejected = new ArrayList<>();
+        int queued = 0;
+        for (DispatchOrderRequest order : orders) {
+            DispatchStatusResponse status = DispatchStatusResponse.builder()
+                    .orderId(order.getOrderId())
+                    .state(DispatchStatusResponse.State.QUEUED)
+                    .attempts(0)
+                    .queuedAt(LocalDateTime.now())
+                    .build();
+            // One compute decides the winner: two submits of the same UNMATCHED order must not both enqueue it
+            boolean[] accepted = new boolean[1];
+            results.asMap().compute(order.getOrderId(), (id, existing) -> {
+                if (existing != null && existing.getState() != DispatchStatusResponse.State.UNMATCHED) {
+                    return existing;
+                }
+                accepted[0] = true;
+                return status;
+            });
+            if (!accepted[0]) {
+                duplicates.add(order.getOrderId());
+                continue;
+            }
+
+            PendingOrder pending = new PendingOrder(order.getOrderId(), order.getPickupLatitude(),
+                    order.getPickupLongitude(), System.nanoTime(), 0, null);
+            boolean enqueued = slots.tryAcquire();
+            if (enqueued && !queue.offer(pending)) {
+                slots.release();
+                enqueued = false;
+            }
+            if (enqueued) {
+                queued++;
+                queuedCounter.increment();
+            } else {
+                results.invalidate(order.getOrderId());
+                rejected.add(order.getOrderId());
+                rejectedCounter.increment();
+            }
+        }
+        if (!rejected.isEmpty()) {
+            log.warn("Dispatch queue full: rejected {} of {} orders", rejected.size(), orders.size());
+        }
+        return DispatchSubmitResponse.builder()
+                .received(orders.size())
+                .queued(queued)
+                .duplicateOrderIds(duplicates)
+                .rejectedOrderIds(rejected)
+                .build();
+    }
+
+    public Optional<DispatchStatusResponse> getStatus(Long orderId) {
+        return Optional.ofNullable(results.getIfPresent(orderId));
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runWorker() {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            PendingOrder order;
+            try {
+                order = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                matchDuration.record(() -> match(order));
+            } catch (RuntimeException e) {
+                log.error("Dispatch worker failed on order {}: {}", order.orderId(), e.getMessage(), e);
+                unmatchedCounter.increment();
+                finish(order.orderId(), DispatchStatusResponse.State.UNMATCHED, null, order.attempt() + 1, null);
+            }
+        }
+    }
+
+    private void match(PendingOrder order) {
+        int attempt = order.attempt() + 1;
+        if (order.unconfirmedDriverId() != null) {
+            Boolean assigned = isAssigned(order.unconfirmedDriverId(), order.orderId());
+            if (assigned == null) {
+                // Still cannot tell whether the earlier claim committed; do not risk a second driver
+                retryOrGiveUp(order, attempt, order.unconfirmedDriverId());
+                return;
+            }
+            if (assigned) {
+                assigned(order, order.unconfirmedDriverId(), attempt);
+                return;
+            }
+        }
+
+        Long unconfirmedDriverId = null;
+        for (Candidate candidate : rankCandidates(order)) {
+            Long driverId = candidate.driver().getId();
+            if (!claimedDrivers.add(driverId)) {
+                claimSkippedCounter.increment();
+                continue;
+            }
+            try {
+                if (driverService.tryAssignOrder(driverId, order.orderId())) {
+                    assigned(order, driverId, attempt);
+                    log.debug("Order {} assigned to driver {} (score {})", order.orderId(), driverId, candidate.score());
+                    return;
+                }
+                staleCandidateCounter.increment();
+            } catch (DataAccessException e) {
+                // The UPDATE may have committed before the error reached us (e.g. a timeout on commit)
+                assignFailedCounter.increment();
+                log.warn("Assigning order {} to driver {} failed: {}", order.orderId(), driverId, e.getMessage());
+                Boolean assigned = isAssigned(driverId, order.orderId());
+                if (Boolean.TRUE.equals(assigned)) {
+                    assigned(order, driverId, attempt);
+                    return;
+                }
+                if (assigned == null) {
+                    unconfirmedDriverId = driverId;
+                }
+                break;
+            } finally {
+                claimedDrivers.remove(driverId);
+            }
+        }
+        retryOrGiveUp(order, attempt, unconfirmedDriverId);
+    }
+
+    private void assigned(PendingOrder order, Long driverId, int attempt) {
+        long latencyNanos = System.nanoTime() - order.enqueuedAtNanos();
+        matchLatency.record(latencyNanos, TimeUnit.NANOSECONDS);
+        assignedCounter.increment();
+        finish(order.orderId(), DispatchStatusResponse.State.ASSIGNED, driverId, attempt,
+                TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+    }
+
+    /**
+     * @return Whether the driver holds the order in the database, or null if that cannot be read either
+     */
+    private Boolean isAssigned(Long driverId, Long orderId) {
+        try {
+            return driverService.hasCurrentOrder(driverId, orderId);
+        } catch (DataAccessException e) {
+            log.warn("Could not check whether order {} is assigned to driver {}: {}", orderId, driverId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void retryOrGiveUp(PendingOrder order, int attempt, Long unconfirmedDriverId) {
+        if (attempt >= properties.getMaxAttempts() || !running) {
+            unmatchedCounter.increment();
+            finish(order.orderId(), DispatchStatusResponse.State.UNMATCHED, null, attempt, null);
+            log.info("Order {} left unmatched after {} attempts", order.orderId(), attempt);
+            return;
+        }
+        retriedCounter.increment();
+        results.asMap().computeIfPresent(order.orderId(), (id, status) -> status.toBuilder().attempts(attempt).build());
+        PendingOrder retry = new PendingOrder(order.orderId(), order.pickupLatitude(), order.pickupLongitude(),
+                order.enqueuedAtNanos(), attempt, unconfirmedDriverId);
+        retryScheduler.schedule(() -> requeue(retry), properties.getRetryDelayMs(), TimeUnit.MILLISECONDS);
+    }
+
+    private void requeue(PendingOrder order) {
+        // The order kept its slot while waiting, so there is room unless the engine is stopping
+        if (!queue.offer(order)) {
+            unmatchedCounter.increment();
+            finish(order.orderId(), DispatchStatusResponse.State.UNMATCHED, null, order.attempt(), null);
+            log.warn("Dispatch queue full: order {} dropped on retry", order.orderId());
+        }
+    }
+
+    /**
+     * Available drivers best-first, at most candidateLimit of them
+     */
+    private List<Candidate> rankCandidates(PendingOrder order) {
+        if (!availabilityIndex.isReady()) {
+            return List.of();
+        }
+        DispatchProperties.Weights weights = properties.getWeights();
+        List<Candidate> candidates = new ArrayList<>();
+        if (order.pickupLatitude() != null && order.pickupLongitude() != null) {
+            double radiusKm = Math.min(properties.getSearchRadiusKm(), DriverService.MAX_NEAREST_RADIUS_KM);
+            // Look a bit wider than candidateLimit so rating can outweigh a slightly shorter trip
+            int k = properties.getCandidateLimit() * 2;
+            for (DriverSpatialIndex.Match match : spatialIndex.nearest(
+                    order.pickupLatitude(), order.pickupLongitude(), k, radiusKm)) {
+                availabilityIndex.get(match.driverId())
+                        .filter(DriverAvailabilityIndex::isAvailable)
+                        .ifPresent(driver -> candidates.add(
+                                new Candidate(driver, score(driver, weights) - weights.getDistance() * match.distanceKm())));
+            }
+        } else {
+            for (DriverResponse driver : availabilityIndex.getAvailable()) {
+                candidates.add(new Candidate(driver, score(driver, weights)));
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        return candidates.size() > properties.getCandidateLimit()
+                ? candidates.subList(0, properties.getCandidateLimit()) : candidates;
+    }
+
+    private static double score(DriverResponse driver, DispatchProperties.Weights weights) {
+        double rating = driver.getRating() != null ? driver.getRating() : weights.getDefaultRating();
+        int deliveries = driver.getTotalDeliveries() != null ? driver.getTotalDeliveries() : 0;
+        return weights.getRating() * rating + weights.getDeliveries() * Math.log1p(deliveries);
+    }
+
+    /**
+     * Record the outcome and give the order's slot back; a second call for a finished order changes nothing
+     */
+    private void finish(Long orderId, DispatchStatusResponse.State state, Long driverId, int attempts, Long latencyMs) {
+        boolean[] finished = new boolean[1];
+        results.asMap().compute(orderId, (id, status) -> {
+            if (status != null && status.getFinishedAt() != null) {
+                return status;
+            }
+            finished[0] = true;
+            return (status != null ? status.toBuilder() : DispatchStatusResponse.builder().orderId(orderId))
+                    .state(state)
+                    .driverId(driverId)
+                    .attempts(attempts)
+                    .finishedAt(LocalDateTime.now())
+                    .matchLatencyMs(latencyMs)
+                    .build();
+        });
+        if (finished[0]) {
+            slots.release();
+        }
+    }
+
+    private static Counter ordersCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("dispatch.orders")
+                .description("Orders handled by the dispatch engine, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param unconfirmedDriverId Driver whose claim failed with an unknown outcome, checked before the next round
+     */
+    private record PendingOrder(Long orderId, Double pickupLatitude, Double pickupLongitude,
+                                long enqueuedAtNanos, int attempt, Long unconfirmedDriverId) {
+    }
+
+    private record Candidate(DriverResponse driver, double score) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.cryptic.userservice.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tuning of the in-process dispatch engine (dispatch.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "dispatch")
+public class DispatchProperties {
+
+    /**
+     * Matching threads; 0 means one per core
+     */
+    private int workers = 0;
+
+    /**
+     * Orders queued, being matched or waiting for a retry before new ones are rejected
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Best-scored drivers tried per order before it is retried later
+     */
+    private int candidateLimit = 20;
+
+    /**
+     * Search radius around the pickup point when the order has one (at most 50 km)
+     */
+    private double searchRadiusKm = 10.0;
+
+    /**
+     * Matching rounds per order before it is reported UNMATCHED
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Pause before an order with no free driver is tried again
+     */
+    private long retryDelayMs = 2000;
+
+    /**
+     * How long finished dispatch results stay queryable
+     */
+    private long resultRetentionMinutes = 60;
+
+    private Weights weights = new Weights();
+
+    /**
+     * score = rating * rating + deliveries * ln(1 + totalDeliveries) - distance * km
+     */
+    @Data
+    public static class Weights {
+        private double rating = 1.0;
+        private double deliveries = 0.1;
+        private double distance = 0.5;
+
+        /**
+         * Rating assumed for drivers that have none yet
+         */
+        private double defaultRating = 5.0;
+    }
+}
@@ -0,0 +1,221 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.response.DriverResponse;
+import com.cryptic.userservice.entity.Driver;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of every driver, indexed by status and by free/busy state
+ * Lets dispatch poll /available and /status/{status} without touching the database.
+ * Writes come only from DriverIndexUpdater after commit; readers never block.
+ * Membership sets can briefly disagree with the snapshot map during an update,
+ * so readers always re-check the snapshot they return.
+ */
+@Component
+public class DriverAvailabilityIndex {
+
+    private final ConcurrentHashMap<Long, DriverResponse> drivers = new ConcurrentHashMap<>();
+    private final Map<Driver.DriverStatus, Set<Long>> byStatus = new EnumMap<>(Driver.DriverStatus.class);
+    private final Set<Long> available = ConcurrentHashMap.newKeySet();
+    // Sequence number of the last change to each driver, removals included; always
+    // written inside the drivers.compute call for that id
+    private final ConcurrentHashMap<Long, Long> lastChange = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean ready;
+
+    public DriverAvailabilityIndex() {
+        for (Driver.DriverStatus status : Driver.DriverStatus.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * @return true once the index has been loaded from the database
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return Sequence number of the latest change; read before loading a rebuild snapshot
+     */
+    public long currentSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Insert or replace the snapshot of a driver
+     * A row older (by updatedAt) than the indexed entry is ignored, so reloads that
+     * finish out of order cannot roll a driver back. The position is taken from
+     * whichever side has the newer locationUpdatedAt: ingested pings move the index
+     * before the flusher writes them, so a row re-read in between still holds the old position.
+     * @return The snapshot now indexed for the driver
+     */
+    public DriverResponse upsert(DriverResponse driver) {
+        return drivers.compute(driver.getId(), (id, previous) -> {
+            if (previous != null && isOlder(driver, previous)) {
+                return previous;
+            }
+            DriverResponse next = previous != null && hasNewerLocation(previous, driver)
+                    ? driver.toBuilder()
+                            .latitude(previous.getLatitude())
+                            .longitude(previous.getLongitude())
+                            .locationUpdatedAt(previous.getLocationUpdatedAt())
+                            .build()
+                    : driver;
+            if (previous != null) {
+                byStatus.get(Driver.DriverStatus.valueOf(previous.getStatus())).remove(id);
+            }
+            byStatus.get(Driver.DriverStatus.valueOf(next.getStatus())).add(id);
+            if (isAvailable(next)) {
+                available.add(id);
+            } else {
+                available.remove(id);
+            }
+            lastChange.put(id, sequence.incrementAndGet());
+            return next;
+        });
+    }
+
+    /**
+     * Move an indexed driver without touching its status
+     * Pings reported no later than the position already held are ignored, so a
+     * late or reordered ping cannot move the driver back.
+     * @return The updated snapshot, or empty if the driver is not indexed or the ping is stale
+     */
+    public Optional<DriverResponse> updateLocation(Long driverId, double latitude, double longitude,
+                                                   LocalDateTime reportedAt) {
+        DriverResponse[] updated = new DriverResponse[1];
+        drivers.computeIfPresent(driverId, (id, current) -> {
+            if (isStale(current, reportedAt)) {
+                return current;
+            }
+            updated[0] = current.toBuilder()
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .locationUpdatedAt(reportedAt)
+                    .build();
+            lastChange.put(id, sequence.incrementAndGet());
+            return updated[0];
+        });
+        return Optional.ofNullable(updated[0]);
+    }
+
+    /**
+     * @return true if the indexed driver already has a position reported at or after reportedAt
+     */
+    public boolean hasLocationSince(Long driverId, LocalDateTime reportedAt) {
+        DriverResponse current = drivers.get(driverId);
+        return current != null && isStale(current, reportedAt);
+    }
+
+    public void remove(Long driverId) {
+        removeUnlessChangedAfter(driverId, Long.MAX_VALUE);
+    }
+
+    /**
+     * Replace the whole content with a fresh read of the drivers table
+     * Drivers changed after since are left as they are: that change was applied after
+     * the snapshot was read, so the snapshot may predate it. This keeps a driver created
+     * or updated during the read, and keeps one removed during the read from coming back.
+     * @param since currentSequence() as read before the snapshot was loaded
+     * @return The entries now indexed, for the other indexes to rebuild from
+     */
+    public List<DriverResponse> rebuild(Collection<DriverResponse> snapshot, long since) {
+        Set<Long> seen = new HashSet<>(snapshot.size() * 2);
+        for (DriverResponse driver : snapshot) {
+            seen.add(driver.getId());
+            if (!changedAfter(driver.getId(), since)) {
+                upsert(driver);
+            }
+        }
+        for (Long id : drivers.keySet()) {
+            if (!seen.contains(id)) {
+                removeUnlessChangedAfter(id, since);
+            }
+        }
+        // Markers of removals the snapshot already reflects are no longer needed
+        lastChange.entrySet().removeIf(entry -> entry.getValue() <= since && !drivers.containsKey(entry.getKey()));
+        ready = true;
+        return new ArrayList<>(drivers.values());
+    }
+
+    public Optional<DriverResponse> get(Long driverId) {
+        return Optional.ofNullable(drivers.get(driverId));
+    }
+
+    public Optional<DriverResponse> findByUserId(Long userId) {
+        return drivers.values().stream()
+                .filter(driver -> userId.equals(driver.getUserId()))
+                .findFirst();
+    }
+
+    /**
+     * @return Drivers with the given status, ordered by id
+     */
+    public List<DriverResponse> getByStatus(Driver.DriverStatus status) {
+        return collect(byStatus.get(status), driver -> status.name().equals(driver.getStatus()));
+    }
+
+    /**
+     * @return ONLINE drivers without a current order, ordered by id
+     */
+    public List<DriverResponse> getAvailable() {
+        return collect(available, DriverAvailabilityIndex::isAvailable);
+    }
+
+    public int size() {
+        return drivers.size();
+    }
+
+    private List<DriverResponse> collect(Set<Long> ids, java.util.function.Predicate<DriverResponse> stillMatches) {
+        List<DriverResponse> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            DriverResponse driver = drivers.get(id);
+            if (driver != null && stillMatches.test(driver)) {
+                result.add(driver);
+            }
+        }
+        result.sort(Comparator.comparing(DriverResponse::getId));
+        return result;
+    }
+
+    private boolean changedAfter(Long driverId, long since) {
+        return lastChange.getOrDefault(driverId, 0L) > since;
+    }
+
+    private void removeUnlessChangedAfter(Long driverId, long since) {
+        drivers.computeIfPresent(driverId, (id, previous) -> {
+            if (changedAfter(id, since)) {
+                return previous;
+            }
+            byStatus.get(Driver.DriverStatus.valueOf(previous.getStatus())).remove(id);
+            available.remove(id);
+            lastChange.put(id, sequence.incrementAndGet());
+            return null;
+        });
+    }
+
+    private static boolean isOlder(DriverResponse row, DriverResponse current) {
+        return row.getUpdatedAt() != null && current.getUpdatedAt() != null
+                && row.getUpdatedAt().isBefore(current.getUpdatedAt());
+    }
+
+    private static boolean hasNewerLocation(DriverResponse current, DriverResponse row) {
+        return current.getLocationUpdatedAt() != null
+                && (row.getLocationUpdatedAt() == null || current.getLocationUpdatedAt().isAfter(row.getLocationUpdatedAt()));
+    }
+
+    private static boolean isStale(DriverResponse current, LocalDateTime reportedAt) {
+        return current.getLocationUpdatedAt() != null && !reportedAt.isAfter(current.getLocationUpdatedAt());
+    }
+
+    static boolean isAvailable(DriverResponse driver) {
+        return Driver.DriverStatus.ONLINE.name().equals(driver.getStatus()) && driver.getCurrentOrderId() == null;
+    }
+}
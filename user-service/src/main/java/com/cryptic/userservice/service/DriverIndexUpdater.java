@@ -0,0 +1,104 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.response.DriverResponse;
+import com.cryptic.userservice.event.DriverChangedEvent;
+import com.cryptic.userservice.event.DriversChangedEvent;
+import com.cryptic.userservice.event.UserChangedEvent;
+import com.cryptic.userservice.repository.DriverRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps DriverAvailabilityIndex, DriverSpatialIndex and DriverLeaderboard in sync with the drivers table
+ * Changed rows are re-read after their transaction commits, so the index never
+ * shows uncommitted or rolled-back state. A periodic full reload repairs any
+ * out-of-order updates between concurrent writers.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DriverIndexUpdater {
+
+    private final DriverRepository driverRepository;
+    private final DriverAvailabilityIndex availabilityIndex;
+    private final DriverSpatialIndex spatialIndex;
+    private final DriverLeaderboard leaderboard;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${driver-index.refresh-interval-ms:60000}",
+            initialDelayString = "${driver-index.refresh-interval-ms:60000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDriverChanged(DriverChangedEvent event) {
+        reload(event.driverId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDriversChanged(DriversChangedEvent event) {
+        if (event.driverIds().isEmpty()) {
+            return;
+        }
+        Set<Long> missing = new HashSet<>(event.driverIds());
+        for (DriverResponse driver : driverRepository.findResponsesByIdIn(event.driverIds())) {
+            apply(driver);
+            missing.remove(driver.getId());
+        }
+        missing.forEach(this::evict);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        // Driver responses embed name, email and phone of the user
+        driverRepository.findResponseByUserId(event.userId())
+                .ifPresentOrElse(this::apply,
+                        () -> availabilityIndex.findByUserId(event.userId())
+                                .ifPresent(driver -> evict(driver.getId())));
+    }
+
+    /**
+     * Re-read one driver and update the index (removes it if the row is gone)
+     */
+    public void reload(Long driverId) {
+        driverRepository.findResponseById(driverId)
+                .ifPresentOrElse(this::apply, () -> evict(driverId));
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long since = availabilityIndex.currentSequence();
+        List<DriverResponse> drivers = availabilityIndex.rebuild(driverRepository.findAllResponses(), since);
+        spatialIndex.rebuild(drivers);
+        leaderboard.rebuild(drivers);
+        log.debug("Driver index rebuilt with {} drivers ({} located and available) in {} ms",
+                availabilityIndex.size(), spatialIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    private void apply(DriverResponse driver) {
+        DriverResponse effective = availabilityIndex.upsert(driver);
+        spatialIndex.update(effective);
+        leaderboard.update(effective);
+    }
+
+    private void evict(Long driverId) {
+        availabilityIndex.remove(driverId);
+        spatialIndex.remove(driverId);
+        leaderboard.remove(driverId);
+    }
+}
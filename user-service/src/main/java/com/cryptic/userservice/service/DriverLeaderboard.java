@@ -0,0 +1,108 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.response.DriverResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Drivers kept sorted by rating and by delivery count
+ * Each ranking is a skip list ordered best-first, so the top k is the first k entries
+ * and a changed driver is re-positioned in O(log n) instead of re-sorting everyone.
+ */
+@Component
+public class DriverLeaderboard {
+
+    public enum Metric {
+        RATING, DELIVERIES
+    }
+
+    private final Map<Metric, Ranking> rankings = new EnumMap<>(Metric.class);
+
+    public DriverLeaderboard() {
+        rankings.put(Metric.RATING, new Ranking());
+        rankings.put(Metric.DELIVERIES, new Ranking());
+    }
+
+    public void update(DriverResponse driver) {
+        rankings.get(Metric.RATING).put(driver.getId(),
+                driver.getRating() != null ? driver.getRating() : -1.0);
+        rankings.get(Metric.DELIVERIES).put(driver.getId(),
+                driver.getTotalDeliveries() != null ? driver.getTotalDeliveries() : 0);
+    }
+
+    public void remove(Long driverId) {
+        rankings.values().forEach(ranking -> ranking.remove(driverId));
+    }
+
+    public void rebuild(Collection<DriverResponse> snapshot) {
+        Set<Long> seen = new HashSet<>(snapshot.size() * 2);
+        for (DriverResponse driver : snapshot) {
+            update(driver);
+            seen.add(driver.getId());
+        }
+        for (Ranking ranking : rankings.values()) {
+            for (Long id : ranking.ids()) {
+                if (!seen.contains(id)) {
+                    ranking.remove(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return IDs of the best k drivers for the metric, best first
+     */
+    public List<Long> top(Metric metric, int k) {
+        // A driver being moved can briefly appear twice; keep its better position
+        Set<Long> result = new LinkedHashSet<>(k * 2);
+        for (Entry entry : rankings.get(metric).sorted) {
+            if (result.size() == k) {
+                break;
+            }
+            result.add(entry.driverId());
+        }
+        return new ArrayList<>(result);
+    }
+
+    private record Entry(Long driverId, double value) implements Comparable<Entry> {
+        @Override
+        public int compareTo(Entry other) {
+            int byValue = Double.compare(other.value, value);
+            return byValue != 0 ? byValue : driverId.compareTo(other.driverId);
+        }
+    }
+
+    private static final class Ranking {
+        private final ConcurrentSkipListSet<Entry> sorted = new ConcurrentSkipListSet<>();
+        private final ConcurrentHashMap<Long, Entry> current = new ConcurrentHashMap<>();
+
+        void put(Long driverId, double value) {
+            current.compute(driverId, (id, previous) -> {
+                if (previous != null && previous.value() == value) {
+                    return previous;
+                }
+                Entry entry = new Entry(id, value);
+                // Add before removing, so a concurrent reader never misses the driver
+                sorted.add(entry);
+                if (previous != null) {
+                    sorted.remove(previous);
+                }
+                return entry;
+            });
+        }
+
+        void remove(Long driverId) {
+            current.computeIfPresent(driverId, (id, previous) -> {
+                sorted.remove(previous);
+                return null;
+            });
+        }
+
+        Set<Long> ids() {
+            return current.keySet();
+        }
+    }
+}
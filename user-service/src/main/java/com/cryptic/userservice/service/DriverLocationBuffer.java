@@ -0,0 +1,98 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.request.DriverLocationPing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest unflushed position per driver
+ * Pings for the same driver overwrite each other in place, so the database sees at
+ * most one write per driver per flush no matter how often the app reports.
+ * Once maxPending drivers are waiting, pings for drivers not already buffered are
+ * dropped instead of growing the map without bound.
+ */
+@Component
+public class DriverLocationBuffer {
+
+    private final ConcurrentHashMap<Long, DriverLocationPing> pending = new ConcurrentHashMap<>();
+    private final int maxPending;
+
+    private final Counter accepted;
+    private final Counter coalesced;
+    private final Counter stale;
+    private final Counter dropped;
+
+    public DriverLocationBuffer(DriverLocationProperties properties, MeterRegistry meterRegistry) {
+        this.maxPending = properties.getMaxPending();
+        this.accepted = pingCounter(meterRegistry, "accepted");
+        this.coalesced = pingCounter(meterRegistry, "coalesced");
+        this.stale = pingCounter(meterRegistry, "stale");
+        this.dropped = pingCounter(meterRegistry, "dropped");
+        Gauge.builder("driver.location.pending", pending, ConcurrentHashMap::size)
+                .description("Drivers with a buffered position not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffer a ping, keeping only the newest one per driver
+     * @return false if the ping was dropped because the buffer is full
+     */
+    public boolean offer(DriverLocationPing ping) {
+        if (pending.size() >= maxPending && !pending.containsKey(ping.getDriverId())) {
+            dropped.increment();
+            return false;
+        }
+        pending.merge(ping.getDriverId(), ping, (current, incoming) -> {
+            if (incoming.getRecordedAt().isBefore(current.getRecordedAt())) {
+                stale.increment();
+                return current;
+            }
+            coalesced.increment();
+            return incoming;
+        });
+        accepted.increment();
+        return true;
+    }
+
+    /**
+     * Remove and return everything buffered so far
+     * A ping arriving during the drain either makes it into this batch or stays for the next one
+     */
+    public List<DriverLocationPing> drain() {
+        List<DriverLocationPing> batch = new ArrayList<>(pending.size());
+        for (Long driverId : pending.keySet()) {
+            DriverLocationPing ping = pending.remove(driverId);
+            if (ping != null) {
+                batch.add(ping);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Put back pings whose flush failed, unless a newer one arrived meanwhile
+     */
+    public void requeue(List<DriverLocationPing> pings) {
+        for (DriverLocationPing ping : pings) {
+            pending.merge(ping.getDriverId(), ping,
+                    (current, failed) -> current.getRecordedAt().isBefore(failed.getRecordedAt()) ? failed : current);
+        }
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    private static Counter pingCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("driver.location.pings")
+                .description("Location pings received, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,73 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.request.DriverLocationPing;
+import com.cryptic.userservice.repository.DriverJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically writes buffered driver positions with JDBC batch updates
+ * No DriverChangedEvent is published for these writes; the spatial index has
+ * already been moved when the ping was accepted. Driver rows are not in the
+ * second-level cache, so there is nothing to evict either.
+ */
+@Component
+@Slf4j
+public class DriverLocationFlusher {
+
+    private final DriverLocationBuffer buffer;
+    private final DriverJdbcRepository driverJdbcRepository;
+    private final int batchSize;
+
+    private final Timer flushTimer;
+    private final Counter flushedRows;
+    private final Counter failedFlushes;
+
+    public DriverLocationFlusher(DriverLocationBuffer buffer,
+                                 DriverJdbcRepository driverJdbcRepository,
+                                 DriverLocationProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.buffer = buffer;
+        this.driverJdbcRepository = driverJdbcRepository;
+        this.batchSize = properties.getBatchSize();
+        this.flushTimer = Timer.builder("driver.location.flush")
+                .description("Time to write one round of buffered driver positions")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("driver.location.flushed")
+                .description("Driver rows updated by location flushes")
+                .register(meterRegistry);
+        this.failedFlushes = Counter.builder("driver.location.flush.failures")
+                .description("Location flushes that failed and were re-queued")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${driver-location.flush-interval-ms:1000}")
+    public void flush() {
+        List<DriverLocationPing> batch = buffer.drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            int updated = flushTimer.record(() -> driverJdbcRepository.batchUpdateLocations(batch, batchSize));
+            flushedRows.increment(updated);
+            log.debug("Flushed {} driver positions ({} rows updated)", batch.size(), updated);
+        } catch (DataAccessException ex) {
+            failedFlushes.increment();
+            buffer.requeue(batch);
+            log.error("Failed to flush {} driver positions, re-queued: {}", batch.size(), ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,27 @@
+package com.cryptic.userservice.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Buffering of high-frequency driver location pings (driver-location.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "driver-location")
+public class DriverLocationProperties {
+
+    /**
+     * How often buffered positions are written to the drivers table
+     */
+    private long flushIntervalMs = 1000;
+
+    /**
+     * Rows per JDBC batch when flushing
+     */
+    private int batchSize = 500;
+
+    /**
+     * Upper bound on drivers with an unflushed position; pings for further drivers are dropped
+     */
+    private int maxPending = 100_000;
+}
@@ -0,0 +1,135 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.event.DriversChangedEvent;
+import com.cryptic.userservice.repository.DriverJdbcRepository;
+import com.cryptic.userservice.repository.DriverJdbcRepository.RatingDelta;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accumulates customer ratings in memory and applies them to the drivers table in batches
+ * Each driver holds one pending (sum, count) delta no matter how many ratings arrive,
+ * so a burst of submissions costs one UPDATE per rated driver per flush. The stored
+ * rating is derived from rating_sum / rating_count in the same statement.
+ * A rating repeated for the same driver and order within dedup-window is ignored,
+ * so client retries are not counted twice; ratings without an order are not deduplicated.
+ */
+@Component
+@Slf4j
+public class DriverRatingAggregator {
+
+    private final ConcurrentHashMap<Long, RatingDelta> pending = new ConcurrentHashMap<>();
+    private final Cache<RatedOrder, Boolean> rated;
+    private final DriverJdbcRepository driverJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final Counter submitted;
+    private final Counter duplicates;
+    private final Counter failedFlushes;
+    private final Timer flushTimer;
+
+    public DriverRatingAggregator(DriverJdbcRepository driverJdbcRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${driver-rating.batch-size:500}") int batchSize,
+                                  @Value("${driver-rating.dedup-window:24h}") Duration dedupWindow,
+                                  @Value("${driver-rating.dedup-max-orders:1000000}") long dedupMaxOrders) {
+        this.rated = Caffeine.newBuilder()
+                .maximumSize(dedupMaxOrders)
+                .expireAfterWrite(dedupWindow)
+                .build();
+        this.driverJdbcRepository = driverJdbcRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.submitted = Counter.builder("driver.rating.submitted")
+                .description("Customer ratings accepted for aggregation")
+                .register(meterRegistry);
+        this.duplicates = Counter.builder("driver.rating.duplicates")
+                .description("Ratings ignored because the order was already rated")
+                .register(meterRegistry);
+        this.failedFlushes = Counter.builder("driver.rating.flush.failures")
+                .description("Rating flushes that failed and were re-queued")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("driver.rating.flush")
+                .description("Time to apply one round of accumulated ratings")
+                .register(meterRegistry);
+        Gauge.builder("driver.rating.pending", pending, ConcurrentHashMap::size)
+                .description("Drivers with ratings not yet applied to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Add one rating to the pending delta of a driver
+     * @param orderId Order being rated, or null if unknown
+     * @return false if this driver and order were already rated
+     */
+    public boolean add(Long driverId, Long orderId, double rating) {
+        if (orderId != null && rated.asMap().putIfAbsent(new RatedOrder(driverId, orderId), Boolean.TRUE) != null) {
+            duplicates.increment();
+            return false;
+        }
+        pending.merge(driverId, new RatingDelta(driverId, rating, 1), RatingDelta::plus);
+        submitted.increment();
+        return true;
+    }
+
+    public int pendingDrivers() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${driver-rating.flush-interval-ms:2000}")
+    public void flush() {
+        List<RatingDelta> batch = new ArrayList<>(pending.size());
+        for (Long driverId : pending.keySet()) {
+            RatingDelta delta = pending.remove(driverId);
+            if (delta != null) {
+                batch.add(delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            // One transaction, so a failed flush can be re-queued without double counting
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(
+                    status -> driverJdbcRepository.batchAddRatings(batch, batchSize)));
+        } catch (RuntimeException ex) {
+            // DataAccessException, but also TransactionException such as CannotCreateTransactionException
+            failedFlushes.increment();
+            batch.forEach(delta -> pending.merge(delta.driverId(), delta, RatingDelta::plus));
+            log.error("Failed to apply ratings for {} drivers, re-queued: {}", batch.size(), ex.getMessage());
+            return;
+        }
+        log.debug("Applied ratings for {} drivers", batch.size());
+        eventPublisher.publishEvent(new DriversChangedEvent(batch.stream().map(RatingDelta::driverId).toList()));
+    }
+
+    private record RatedOrder(Long driverId, Long orderId) {
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -1,68 +1,136 @@
 package com.cryptic.userservice.service;
 
+import com.cryptic.userservice.dto.request.DriverLocationPing;
+import com.cryptic.userservice.dto.request.DriverRatingRequest;
+import com.cryptic.userservice.dto.request.IdBatchRequest;
+import com.cryptic.userservice.dto.request.OrderAssignment;
+import com.cryptic.userservice.dto.request.UpdateDriverLocationRequest;
 import com.cryptic.userservice.dto.request.UpdateDriverStatusRequest;
+import com.cryptic.userservice.dto.response.BatchLookupResponse;
+import com.cryptic.userservice.dto.response.BulkAssignOrderResponse;
+import com.cryptic.userservice.dto.response.CursorPageResponse;
 import com.cryptic.userservice.dto.response.DriverResponse;
+import com.cryptic.userservice.dto.response.LocationIngestResponse;
+import com.cryptic.userservice.dto.response.NearbyDriverResponse;
+import com.cryptic.userservice.dto.response.OrderAssignmentResult;
+import com.cryptic.userservice.dto.response.RatingSubmitResponse;
 import com.cryptic.userservice.entity.Driver;
 import com.cryptic.userservice.entity.User;
+import com.cryptic.userservice.event.DriverChangedEvent;
+import com.cryptic.userservice.event.DriversChangedEvent;
+import com.cryptic.userservice.exception.DriverUnavailableException;
 import com.cryptic.userservice.exception.ResourceNotFoundException;
+import com.cryptic.userservice.exception.ValidationException;
+import com.cryptic.userservice.repository.DriverJdbcRepository;
 import com.cryptic.userservice.repository.DriverRepository;
 import com.cryptic.userservice.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing Driver operations
  * Handles driver profile management, status updates, and order assignments
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DriverService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_NEAREST_RESULTS = 100;
+    public static final double MAX_NEAREST_RADIUS_KM = 50.0;
+    public static final int MAX_LEADERBOARD_SIZE = 100;
+
     private final DriverRepository driverRepository;
     private final UserRepository userRepository;
+    private final DriverAvailabilityIndex availabilityIndex;
+    private final DriverSpatialIndex spatialIndex;
+    private final DriverLeaderboard leaderboard;
+    private final DriverLocationBuffer locationBuffer;
+    private final DriverJdbcRepository driverJdbcRepository;
+    private final DriverRatingAggregator ratingAggregator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight<Long, DriverResponse> driverByIdLookups;
+    private final SingleFlight<Long, DriverResponse> driverByUserIdLookups;
+
+    public DriverService(DriverRepository driverRepository,
+                         UserRepository userRepository,
+                         DriverAvailabilityIndex availabilityIndex,
+                         DriverSpatialIndex spatialIndex,
+                         DriverLeaderboard leaderboard,
+                         DriverLocationBuffer locationBuffer,
+                         DriverJdbcRepository driverJdbcRepository,
+                         DriverRatingAggregator ratingAggregator,
+                         ApplicationEventPublisher eventPublisher,
+                         MeterRegistry meterRegistry) {
+        this.driverRepository = driverRepository;
+        this.userRepository = userRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.spatialIndex = spatialIndex;
+        this.leaderboard = leaderboard;
+        this.locationBuffer = locationBuffer;
+        this.driverJdbcRepository = driverJdbcRepository;
+        this.ratingAggregator = ratingAggregator;
+        this.eventPublisher = eventPublisher;
+        this.driverByIdLookups = new SingleFlight<>("drivers.by-id", meterRegistry);
+        this.driverByUserIdLookups = new SingleFlight<>("drivers.by-user-id", meterRegistry);
+    }
 
     /**
      * Get driver by driver ID
+     * The driver row is read from the database, the user from the second-level cache.
+     * Concurrent lookups for the same ID share one load.
+     * Not transactional, so callers waiting on a shared load do not hold a connection.
      * @param id Driver ID
      * @return DriverResponse with user details
-     * @throws ResourceNotFoundException if driver or user not found
+     * @throws ResourceNotFoundException if driver not found
      */
-    @Transactional(readOnly = true)
     public DriverResponse getDriverById(Long id) {
         log.info("Fetching driver by ID: {}", id);
 
-        Driver driver = driverRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Driver not found with id: " + id));
-
-        User user = userRepository.findById(driver.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found for driver"));
-
-        return mapToResponse(driver, user);
+        return driverByIdLookups.execute(id, () -> withUser(driverRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Driver not found with id: " + id))));
     }
 
     /**
      * Get driver by user ID
+     * Resolved through the natural-id cache; concurrent lookups share one load
      * @param userId User ID
      * @return DriverResponse
-     * @throws ResourceNotFoundException if driver or user not found
+     * @throws ResourceNotFoundException if driver not found
      */
-    @Transactional(readOnly = true)
     public DriverResponse getDriverByUserId(Long userId) {
         log.info("Fetching driver by user ID: {}", userId);
 
-        Driver driver = driverRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Driver not found for user id: " + userId));
+        return driverByUserIdLookups.execute(userId, () -> withUser(driverRepository.findByNaturalUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Driver not found for user id: " + userId))));
+    }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    /**
+     * Get many drivers by driver ID with one query
+     * @param ids Driver IDs; duplicates are allowed
+     * @return Drivers in request order, with null and an entry in missingIds for each unknown ID
+     * @throws ValidationException if the list is empty, too long or contains null
+     */
+    @Transactional(readOnly = true)
+    public BatchLookupResponse<DriverResponse> getDriversByIds(List<Long> ids) {
+        IdBatchRequest.validateIds(ids);
+        log.info("Fetching {} drivers by ID", ids.size());
 
-        return mapToResponse(driver, user);
+        Map<Long, DriverResponse> byId = driverRepository.findResponsesByIdIn(new HashSet<>(ids)).stream()
+                .collect(Collectors.toMap(DriverResponse::getId, Function.identity()));
+        return BatchLookupResponse.of(ids, byId);
     }
 
     /**
@@ -73,50 +141,200 @@ public class DriverService {
     public List<DriverResponse> getAllDrivers() {
         log.info("Fetching all drivers");
 
-        return driverRepository.findAll().stream()
-                .map(driver -> {
-                    User user = userRepository.findById(driver.getUserId()).orElse(null);
-                    return mapToResponse(driver, user);
-                })
-                .collect(Collectors.toList());
+        return driverRepository.findAllResponses();
+    }
+
+    /**
+     * Get one page of drivers using keyset pagination on id
+     * @param after Last id of the previous page (null for the first page)
+     * @param size Page size, clamped to 1..MAX_PAGE_SIZE
+     * @return Page of DriverResponse with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DriverResponse> getDriversPage(Long after, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        log.info("Fetching drivers page after {} (size {})", after, pageSize);
+
+        List<DriverResponse> rows = driverRepository.findResponsesAfter(
+                after != null ? after : 0L, Limit.of(pageSize + 1));
+        return CursorPageResponse.of(rows, pageSize, DriverResponse::getId);
+    }
+
+    /**
+     * Stream all drivers to a consumer without loading them all into memory
+     * @param consumer Receives each driver in id order
+     */
+    @Transactional(readOnly = true)
+    public void streamAllDrivers(Consumer<DriverResponse> consumer) {
+        log.info("Streaming all drivers");
+        try (Stream<DriverResponse> drivers = driverRepository.streamAllResponses()) {
+            drivers.forEach(consumer);
+        }
     }
 
     /**
      * Get drivers by status
+     * Served from the in-memory index once it is loaded
      * @param status Driver status (ONLINE, OFFLINE, BUSY, INACTIVE)
      * @return List of DriverResponse
      */
-    @Transactional(readOnly = true)
     public List<DriverResponse> getDriversByStatus(Driver.DriverStatus status) {
-        log.info("Fetching drivers by status: {}", status);
+        log.debug("Fetching drivers by status: {}", status);
 
-        return driverRepository.findByStatus(status).stream()
-                .map(driver -> {
-                    User user = userRepository.findById(driver.getUserId()).orElse(null);
-                    return mapToResponse(driver, user);
-                })
-                .collect(Collectors.toList());
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.getByStatus(status);
+        }
+        return driverRepository.findResponsesByStatus(status);
     }
 
     /**
      * Get available drivers (ONLINE and no current order)
-     * This is useful for order assignment
+     * This is useful for order assignment; served from the in-memory index once it is loaded
      * @return List of available DriverResponse
      */
-    @Transactional(readOnly = true)
     public List<DriverResponse> getAvailableDrivers() {
-        log.info("Fetching available drivers (ONLINE and free)");
+        log.debug("Fetching available drivers (ONLINE and free)");
+
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.getAvailable();
+        }
+        return driverRepository.findAvailableResponses();
+    }
+
+    /**
+     * Get the top drivers by rating or by completed deliveries
+     * Served from the in-memory leaderboard once the index is loaded
+     * @param by "rating" or "deliveries"
+     * @param k Number of drivers, 1..MAX_LEADERBOARD_SIZE
+     * @return Drivers best first
+     * @throws ValidationException if a parameter is invalid
+     */
+    public List<DriverResponse> getLeaderboard(String by, int k) {
+        DriverLeaderboard.Metric metric;
+        try {
+            metric = DriverLeaderboard.Metric.valueOf(by.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Leaderboard must be by 'rating' or 'deliveries'");
+        }
+        if (k < 1 || k > MAX_LEADERBOARD_SIZE) {
+            throw new ValidationException("k must be between 1 and " + MAX_LEADERBOARD_SIZE);
+        }
+        log.debug("Fetching top {} drivers by {}", k, metric);
 
-        return driverRepository.findAvailableDrivers().stream()
-                .map(driver -> {
-                    User user = userRepository.findById(driver.getUserId()).orElse(null);
-                    return mapToResponse(driver, user);
-                })
-                .collect(Collectors.toList());
+        if (!availabilityIndex.isReady()) {
+            return metric == DriverLeaderboard.Metric.RATING
+                    ? driverRepository.findTopByRating(Limit.of(k))
+                    : driverRepository.findTopByDeliveries(Limit.of(k));
+        }
+        List<DriverResponse> result = new ArrayList<>(k);
+        for (Long driverId : leaderboard.top(metric, k)) {
+            availabilityIndex.get(driverId).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Find the closest available drivers (ONLINE, no current order) to a point
+     * Served from the spatial grid once the index is loaded
+     * @param latitude Query latitude
+     * @param longitude Query longitude
+     * @param k Maximum number of drivers, 1..MAX_NEAREST_RESULTS
+     * @param radiusKm Search radius in kilometres, up to MAX_NEAREST_RADIUS_KM
+     * @return Drivers with their distance, closest first
+     * @throws ValidationException if a parameter is out of range
+     */
+    public List<NearbyDriverResponse> findNearestDrivers(double latitude, double longitude, int k, double radiusKm) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new ValidationException("Latitude must be between -90 and 90 and longitude between -180 and 180");
+        }
+        if (k < 1 || k > MAX_NEAREST_RESULTS) {
+            throw new ValidationException("k must be between 1 and " + MAX_NEAREST_RESULTS);
+        }
+        if (!(radiusKm > 0) || radiusKm > MAX_NEAREST_RADIUS_KM) {
+            throw new ValidationException("Radius must be greater than 0 and at most " + MAX_NEAREST_RADIUS_KM + " km");
+        }
+        log.debug("Finding {} nearest drivers to ({}, {}) within {} km", k, latitude, longitude, radiusKm);
+
+        if (!availabilityIndex.isReady()) {
+            return driverRepository.findAvailableResponses().stream()
+                    .filter(driver -> driver.getLatitude() != null && driver.getLongitude() != null)
+                    .map(driver -> new NearbyDriverResponse(driver, DriverSpatialIndex.haversineKm(
+                            latitude, longitude, driver.getLatitude(), driver.getLongitude())))
+                    .filter(nearby -> nearby.getDistanceKm() <= radiusKm)
+                    .sorted(Comparator.comparingDouble(NearbyDriverResponse::getDistanceKm))
+                    .limit(k)
+                    .toList();
+        }
+
+        List<NearbyDriverResponse> result = new ArrayList<>(k);
+        for (DriverSpatialIndex.Match match : spatialIndex.nearest(latitude, longitude, k, radiusKm)) {
+            availabilityIndex.get(match.driverId())
+                    .filter(DriverAvailabilityIndex::isAvailable)
+                    .ifPresent(driver -> result.add(new NearbyDriverResponse(driver, match.distanceKm())));
+        }
+        return result;
+    }
+
+    /**
+     * Update the current position of a driver
+     * @param driverId Driver ID
+     * @param request New latitude and longitude
+     * @throws ResourceNotFoundException if driver not found
+     */
+    public void updateDriverLocation(Long driverId, UpdateDriverLocationRequest request) {
+        log.debug("Updating location for driver {}: ({}, {})", driverId, request.getLatitude(), request.getLongitude());
+
+        int updated = driverJdbcRepository.updateLocation(
+                driverId, request.getLatitude(), request.getLongitude(), LocalDateTime.now());
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Driver not found with id: " + driverId);
+        }
+        eventPublisher.publishEvent(new DriverChangedEvent(driverId));
+    }
+
+    /**
+     * Accept a batch of location pings from driver apps
+     * Pings are coalesced in memory and written by DriverLocationFlusher; the
+     * in-memory indexes move immediately so /nearest sees the new position.
+     * Pings no newer than the driver's indexed position are skipped as stale.
+     * @param pings Pings, possibly several per driver
+     * @return Counts of accepted, stale and dropped pings
+     */
+    public LocationIngestResponse ingestLocations(List<DriverLocationPing> pings) {
+        LocalDateTime receivedAt = LocalDateTime.now();
+        int accepted = 0;
+        int stale = 0;
+        for (DriverLocationPing ping : pings) {
+            if (ping.getRecordedAt() == null || ping.getRecordedAt().isAfter(receivedAt)) {
+                // Device clocks ahead of ours would otherwise pin the row against later pings
+                ping.setRecordedAt(receivedAt);
+            }
+            if (availabilityIndex.hasLocationSince(ping.getDriverId(), ping.getRecordedAt())) {
+                stale++;
+                continue;
+            }
+            if (!locationBuffer.offer(ping)) {
+                continue;
+            }
+            accepted++;
+            availabilityIndex.updateLocation(ping.getDriverId(), ping.getLatitude(), ping.getLongitude(), ping.getRecordedAt())
+                    .ifPresent(spatialIndex::update);
+        }
+        int dropped = pings.size() - accepted - stale;
+        if (dropped > 0) {
+            log.warn("Location buffer full: dropped {} of {} pings", dropped, pings.size());
+        }
+        return LocationIngestResponse.builder()
+                .received(pings.size())
+                .accepted(accepted)
+                .stale(stale)
+                .dropped(dropped)
+                .build();
     }
 
     /**
      * Update driver status
+     * Only the status column is written, so an order assigned concurrently is kept
      * @param driverId Driver ID
      * @param request Update request with new status
      * @return Updated DriverResponse
@@ -126,94 +344,241 @@ public class DriverService {
     public DriverResponse updateDriverStatus(Long driverId, UpdateDriverStatusRequest request) {
         log.info("Updating driver status: {} to {}", driverId, request.getStatus());
 
-        Driver driver = driverRepository.findById(driverId)
-                .orElseThrow(() -> new ResourceNotFoundException("Driver not found with id: " + driverId));
-
-        Driver.DriverStatus oldStatus = driver.getStatus();
-        driver.setStatus(request.getStatus());
-        driver = driverRepository.save(driver);
-
-        log.info("Driver status updated successfully: {} -> {}", oldStatus, request.getStatus());
+        int updated = driverJdbcRepository.updateStatus(driverId, request.getStatus());
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Driver not found with id: " + driverId);
+        }
+        eventPublisher.publishEvent(new DriverChangedEvent(driverId));
 
-        User user = userRepository.findById(driver.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        log.info("Driver {} status updated to {}", driverId, request.getStatus());
 
-        return mapToResponse(driver, user);
+        return driverRepository.findResponseById(driverId)
+                .orElseThrow(() -> new ResourceNotFoundException("Driver not found with id: " + driverId));
     }
 
     /**
      * Assign an order to a driver
-     * Sets the driver status to BUSY and associates the order ID
+     * Sets the driver status to BUSY and associates the order ID with a single conditional
+     * UPDATE, so concurrent dispatchers cannot assign the same driver twice
      * @param driverId Driver ID
      * @param orderId Order ID to assign
      * @throws ResourceNotFoundException if driver not found
+     * @throws DriverUnavailableException if the driver already has an order or is not ONLINE
      */
-    @Transactional
     public void assignOrderToDriver(Long driverId, Long orderId) {
         log.info("Assigning order {} to driver {}", orderId, driverId);
 
-        Driver driver = driverRepository.findById(driverId)
-                .orElseThrow(() -> new ResourceNotFoundException("Driver not found with id: " + driverId));
+        if (!tryAssignOrder(driverId, orderId)) {
+            Driver driver = driverRepository.findById(driverId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Driver not found with id: " + driverId));
+            log.warn("Driver {} is not available for order {} (status {}, current order {})",
+                    driverId, orderId, driver.getStatus(), driver.getCurrentOrderId());
+            throw new DriverUnavailableException("Driver " + driverId + " is not available: status "
+                    + driver.getStatus() + ", current order " + driver.getCurrentOrderId());
+        }
+
+        log.info("Order {} assigned successfully to driver {}", orderId, driverId);
+    }
 
-        // Check if driver is available
-        if (driver.getCurrentOrderId() != null) {
-            log.warn("Driver {} already has an active order: {}", driverId, driver.getCurrentOrderId());
+    /**
+     * Assign an order only if the driver is ONLINE and free, without throwing on a lost race
+     * @param driverId Driver ID
+     * @param orderId Order ID to assign
+     * @return true if this call assigned the order
+     * @throws org.springframework.dao.DataAccessException only if the UPDATE itself failed
+     */
+    public boolean tryAssignOrder(Long driverId, Long orderId) {
+        int updated = driverJdbcRepository.assignOrderIfAvailable(driverId, orderId);
+        if (updated == 0) {
+            return false;
         }
+        try {
+            eventPublisher.publishEvent(new DriverChangedEvent(driverId));
+        } catch (RuntimeException e) {
+            // The assignment has committed; callers must not mistake a failed index or cache
+            // refresh for a failed assignment. The periodic index refresh repairs it.
+            log.warn("Order {} assigned to driver {}, but refreshing the driver failed: {}",
+                    orderId, driverId, e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the driver's current order in the database is the given order
+     */
+    public boolean hasCurrentOrder(Long driverId, Long orderId) {
+        return orderId.equals(driverJdbcRepository.findCurrentOrders(Set.of(driverId)).get(driverId));
+    }
 
-        driver.setCurrentOrderId(orderId);
-        driver.setStatus(Driver.DriverStatus.BUSY);
-        driverRepository.save(driver);
+    /**
+     * Assign many orders in one transaction, e.g. a whole dispatch wave
+     * Each pair follows the same rule as assignOrderToDriver, but losing pairs are
+     * reported instead of failing the whole batch
+     * @param assignments Driver and order pairs, applied in order
+     * @return Per-pair outcome in input order
+     */
+    @Transactional
+    public BulkAssignOrderResponse assignOrders(List<OrderAssignment> assignments) {
+        log.info("Assigning {} orders in bulk", assignments.size());
 
-        log.info("Order {} assigned successfully to driver {}", orderId, driverId);
+        int[] counts = driverJdbcRepository.batchAssignOrders(assignments);
+
+        // Anything not clearly assigned is resolved with one lookup of the current state
+        Set<Long> unresolved = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 1) {
+                unresolved.add(assignments.get(i).getDriverId());
+            }
+        }
+        Map<Long, Long> currentOrders = driverJdbcRepository.findCurrentOrders(unresolved);
+
+        List<OrderAssignmentResult> results = new ArrayList<>(assignments.size());
+        Set<Long> assignedDrivers = new LinkedHashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            OrderAssignment assignment = assignments.get(i);
+            OrderAssignmentResult.Outcome outcome;
+            if (counts[i] == 1) {
+                outcome = OrderAssignmentResult.Outcome.ASSIGNED;
+            } else if (!currentOrders.containsKey(assignment.getDriverId())) {
+                outcome = OrderAssignmentResult.Outcome.NOT_FOUND;
+            } else if (counts[i] == Statement.SUCCESS_NO_INFO
+                    && assignment.getOrderId().equals(currentOrders.get(assignment.getDriverId()))
+                    && !assignedDrivers.contains(assignment.getDriverId())) {
+                outcome = OrderAssignmentResult.Outcome.ASSIGNED;
+            } else {
+                outcome = OrderAssignmentResult.Outcome.CONFLICT;
+            }
+            if (outcome == OrderAssignmentResult.Outcome.ASSIGNED) {
+                assignedDrivers.add(assignment.getDriverId());
+            }
+            results.add(OrderAssignmentResult.builder()
+                    .driverId(assignment.getDriverId())
+                    .orderId(assignment.getOrderId())
+                    .result(outcome)
+                    .build());
+        }
+
+        eventPublisher.publishEvent(new DriversChangedEvent(assignedDrivers));
+        log.info("Bulk assignment finished: {} of {} assigned", assignedDrivers.size(), assignments.size());
+
+        return BulkAssignOrderResponse.builder()
+                .total(assignments.size())
+                .assigned(assignedDrivers.size())
+                .results(results)
+                .build();
     }
 
     /**
      * Mark order as completed for a driver
      * Sets driver status back to ONLINE, clears current order, and increments delivery count
+     * in a single UPDATE, without loading or rewriting the rest of the row
      * @param driverId Driver ID
      * @throws ResourceNotFoundException if driver not found
      */
-    @Transactional
     public void completeOrder(Long driverId) {
         log.info("Completing order for driver: {}", driverId);
 
-        Driver driver = driverRepository.findById(driverId)
-                .orElseThrow(() -> new ResourceNotFoundException("Driver not found with id: " + driverId));
+        int updated = driverJdbcRepository.completeOrder(driverId);
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Driver not found with id: " + driverId);
+        }
+        eventPublisher.publishEvent(new DriverChangedEvent(driverId));
 
-        Long completedOrderId = driver.getCurrentOrderId();
+        log.info("Order completed for driver {}", driverId);
+    }
 
-        // Clear current order and update status
-        driver.setCurrentOrderId(null);
-        driver.setStatus(Driver.DriverStatus.ONLINE);
+    /**
+     * Record customer ratings for drivers
+     * Ratings are accumulated per driver and applied in batches; the stored rating
+     * becomes rating_sum / rating_count within one flush interval. A driver and
+     * order pair is counted once; repeats are reported as duplicates.
+     * @param ratings Ratings, each with its driver ID
+     * @return Counts, with the IDs of drivers that do not exist
+     */
+    public RatingSubmitResponse submitRatings(List<DriverRatingRequest> ratings) {
+        Set<Long> driverIds = new HashSet<>();
+        ratings.stream()
+                .map(DriverRatingRequest::getDriverId)
+                .filter(Objects::nonNull)
+                .forEach(driverIds::add);
+        Set<Long> known = existingDriverIds(driverIds);
+
+        List<Long> unknown = new ArrayList<>();
+        int accepted = 0;
+        int duplicates = 0;
+        for (DriverRatingRequest rating : ratings) {
+            if (rating.getDriverId() != null && known.contains(rating.getDriverId())) {
+                if (ratingAggregator.add(rating.getDriverId(), rating.getOrderId(), rating.getRating())) {
+                    accepted++;
+                } else {
+                    duplicates++;
+                }
+            } else {
+                unknown.add(rating.getDriverId());
+            }
+        }
+        log.debug("Accepted {} of {} ratings", accepted, ratings.size());
 
-        // Increment total deliveries
-        driver.setTotalDeliveries(driver.getTotalDeliveries() + 1);
+        return RatingSubmitResponse.builder()
+                .received(ratings.size())
+                .accepted(accepted)
+                .duplicates(duplicates)
+                .unknownDriverIds(unknown)
+                .build();
+    }
 
-        driverRepository.save(driver);
+    /**
+     * Record one customer rating for a driver
+     * @param driverId Driver ID
+     * @param request Rating between 1 and 5
+     * @throws ResourceNotFoundException if driver not found
+     */
+    public void submitRating(Long driverId, DriverRatingRequest request) {
+        if (existingDriverIds(Set.of(driverId)).isEmpty()) {
+            throw new ResourceNotFoundException("Driver not found with id: " + driverId);
+        }
+        log.debug("Rating {} for driver {} (order {})", request.getRating(), driverId, request.getOrderId());
+        if (!ratingAggregator.add(driverId, request.getOrderId(), request.getRating())) {
+            log.debug("Order {} was already rated for driver {}, ignored", request.getOrderId(), driverId);
+        }
+    }
 
-        log.info("Order {} completed for driver {}. Total deliveries: {}",
-                completedOrderId, driverId, driver.getTotalDeliveries());
+    private Set<Long> existingDriverIds(Set<Long> driverIds) {
+        if (availabilityIndex.isReady()) {
+            Set<Long> known = new HashSet<>();
+            driverIds.forEach(id -> availabilityIndex.get(id).ifPresent(driver -> known.add(id)));
+            // Drivers registered since the last index update are confirmed in the database
+            if (known.size() == driverIds.size()) {
+                return known;
+            }
+        }
+        return driverJdbcRepository.findCurrentOrders(driverIds).keySet();
     }
 
     /**
      * Update driver rating
+     * Manual override; it is replaced by the derived average the next time ratings are applied.
+     * Only the rating column is written, so concurrent assignments and counters are kept.
      * @param driverId Driver ID
      * @param newRating New rating value
      * @throws ResourceNotFoundException if driver not found
      */
-    @Transactional
     public void updateDriverRating(Long driverId, Double newRating) {
         log.info("Updating rating for driver {}: {}", driverId, newRating);
 
-        Driver driver = driverRepository.findById(driverId)
-                .orElseThrow(() -> new ResourceNotFoundException("Driver not found with id: " + driverId));
-
-        driver.setRating(java.math.BigDecimal.valueOf(newRating));
-        driverRepository.save(driver);
+        int updated = driverJdbcRepository.updateRating(driverId, java.math.BigDecimal.valueOf(newRating));
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Driver not found with id: " + driverId);
+        }
+        eventPublisher.publishEvent(new DriverChangedEvent(driverId));
 
         log.info("Driver rating updated successfully: {}", driverId);
     }
 
+    private DriverResponse withUser(Driver driver) {
+        return mapToResponse(driver, userRepository.findById(driver.getUserId()).orElse(null));
+    }
+
     /**
      * Map Driver and User entities to DriverResponse DTO
      * @param driver Driver entity
@@ -234,6 +599,10 @@ public class DriverService {
                 .rating(driver.getRating() != null ? driver.getRating().doubleValue() : null)
                 .totalDeliveries(driver.getTotalDeliveries())
                 .createdAt(driver.getCreatedAt())
+                .latitude(driver.getLatitude())
+                .longitude(driver.getLongitude())
+                .locationUpdatedAt(driver.getLocationUpdatedAt())
+                .updatedAt(driver.getUpdatedAt())
                 .build();
     }
 }
@@ -0,0 +1,186 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.response.DriverResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uniform lat/lon grid over available drivers (ONLINE, no current order) with a known position
+ * A nearest query scans cells ring by ring around the query point and stops as soon as
+ * no unvisited cell can hold a closer driver, so cost depends on local density only.
+ * Positions are looked up from the position map, never from the cell sets, so a
+ * driver caught mid-move between cells is still measured at its latest position.
+ * Longitudes are not wrapped at the antimeridian.
+ */
+@Component
+public class DriverSpatialIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private final double cellDegrees;
+    private final ConcurrentHashMap<Long, Position> positions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    public DriverSpatialIndex(@Value("${driver-index.spatial.cell-degrees:0.01}") double cellDegrees) {
+        if (cellDegrees <= 0 || cellDegrees > 10) {
+            throw new IllegalArgumentException("driver-index.spatial.cell-degrees must be in (0, 10]");
+        }
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Place, move or drop a driver according to its latest snapshot
+     */
+    public void update(DriverResponse driver) {
+        if (DriverAvailabilityIndex.isAvailable(driver)
+                && driver.getLatitude() != null && driver.getLongitude() != null) {
+            put(driver.getId(), driver.getLatitude(), driver.getLongitude());
+        } else {
+            remove(driver.getId());
+        }
+    }
+
+    public void put(Long driverId, double latitude, double longitude) {
+        long cell = cellOf(latitude, longitude);
+        positions.compute(driverId, (id, previous) -> {
+            if (previous != null && previous.cell() != cell) {
+                leaveCell(previous.cell(), id);
+            }
+            // Add inside compute: leaveCell may drop a set it just emptied, and an add made
+            // to a set fetched by computeIfAbsent could land on one no longer in the map
+            cells.compute(cell, (key, members) -> {
+                Set<Long> set = members == null ? ConcurrentHashMap.newKeySet() : members;
+                set.add(id);
+                return set;
+            });
+            return new Position(latitude, longitude, cell);
+        });
+    }
+
+    public void remove(Long driverId) {
+        positions.computeIfPresent(driverId, (id, previous) -> {
+            leaveCell(previous.cell(), id);
+            return null;
+        });
+    }
+
+    public void rebuild(Collection<DriverResponse> snapshot) {
+        Set<Long> seen = new HashSet<>(snapshot.size() * 2);
+        for (DriverResponse driver : snapshot) {
+            update(driver);
+            seen.add(driver.getId());
+        }
+        for (Long id : positions.keySet()) {
+            if (!seen.contains(id)) {
+                remove(id);
+            }
+        }
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    /**
+     * Find the k closest indexed drivers within a radius
+     * @param latitude Query latitude
+     * @param longitude Query longitude
+     * @param k Maximum number of drivers to return
+     * @param radiusKm Search radius in kilometres
+     * @return Matches ordered by distance, closest first
+     */
+    public List<Match> nearest(double latitude, double longitude, int k, double radiusKm) {
+        int centerLat = index(latitude);
+        int centerLon = index(longitude);
+
+        // Smallest extent of one cell anywhere within the radius; any cell in ring r is at
+        // least (r - 1) of these away in one axis
+        double poleward = Math.abs(latitude) + radiusKm / KM_PER_DEGREE + cellDegrees;
+        double cosLat = Math.max(Math.cos(Math.toRadians(Math.min(poleward, 90.0))), 0.01);
+        double minCellKm = cellDegrees * KM_PER_DEGREE * Math.min(1.0, cosLat);
+        int maxRing = (int) Math.ceil(radiusKm / minCellKm) + 1;
+
+        PriorityQueue<Match> best = new PriorityQueue<>(Comparator.comparingDouble(Match::distanceKm).reversed());
+        for (int ring = 0; ring <= maxRing; ring++) {
+            double ringLowerBoundKm = Math.max(0, ring - 1) * minCellKm;
+            if (ringLowerBoundKm > radiusKm || (best.size() == k && ringLowerBoundKm > best.peek().distanceKm())) {
+                break;
+            }
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                boolean edgeRow = Math.abs(dLat) == ring;
+                for (int dLon = -ring; dLon <= ring; dLon += edgeRow ? 1 : 2 * ring) {
+                    scanCell(key(centerLat + dLat, centerLon + dLon), latitude, longitude, k, radiusKm, best);
+                }
+            }
+        }
+
+        List<Match> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Match::distanceKm));
+        return result;
+    }
+
+    private void scanCell(long cell, double latitude, double longitude, int k, double radiusKm,
+                          PriorityQueue<Match> best) {
+        Set<Long> members = cells.get(cell);
+        if (members == null) {
+            return;
+        }
+        for (Long id : members) {
+            Position position = positions.get(id);
+            if (position == null) {
+                continue;
+            }
+            double distance = haversineKm(latitude, longitude, position.latitude(), position.longitude());
+            if (distance > radiusKm) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(new Match(id, distance));
+            } else if (distance < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new Match(id, distance));
+            }
+        }
+    }
+
+    private void leaveCell(long cell, Long driverId) {
+        cells.computeIfPresent(cell, (key, members) -> {
+            members.remove(driverId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private int index(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key(index(latitude), index(longitude));
+    }
+
+    private static long key(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Great-circle distance between two points
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private record Position(double latitude, double longitude, long cell) {
+    }
+
+    public record Match(Long driverId, double distanceKm) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops cached users that were changed on another replica
+ * Local saves and deletes go through Hibernate, which keeps the cache current itself.
+ * Driver rows are never cached, so there is nothing to evict for them.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictUser(Long userId) {
+        entityManagerFactory.getCache().evict(User.class, userId);
+    }
+
+    public void evictAll() {
+        entityManagerFactory.getCache().evictAll();
+    }
+}
@@ -0,0 +1,160 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.response.BatchTokenValidationResponse;
+import com.cryptic.userservice.dto.response.TokenValidationResponse;
+import com.cryptic.userservice.exception.ServiceUnavailableException;
+import com.cryptic.userservice.security.JwtAuthenticationFilter;
+import com.cryptic.userservice.security.TokenClaims;
+import com.cryptic.userservice.security.VerifiedTokenCache;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Service class for token introspection on behalf of other services
+ * Verification is pure CPU work (signature check + JSON), so large batches are split
+ * into chunks on a dedicated, bounded executor rather than the JVM-wide common pool.
+ * When the executor is saturated the batch is refused with a 503 instead of queueing
+ * without limit.
+ */
+@Service
+@Slf4j
+public class TokenValidationService {
+
+    // Below this size the hand-off overhead outweighs the verification cost
+    private static final int PARALLEL_THRESHOLD = 32;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final ThreadPoolExecutor executor;
+    private final int poolSize;
+    private final long retryAfterSeconds;
+
+    public TokenValidationService(VerifiedTokenCache verifiedTokenCache,
+                                  @Value("${security.token-validation.threads:0}") int threads,
+                                  @Value("${security.token-validation.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.token-validation.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("token-verify-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Validate a batch of tokens
+     * @param tokens Raw tokens or Authorization header values
+     * @return One result per token, in request order
+     * @throws ServiceUnavailableException if the verification executor is saturated
+     */
+    public BatchTokenValidationResponse validateTokens(List<String> tokens) {
+        log.info("Validating batch of {} tokens", tokens.size());
+
+        List<TokenValidationResponse> results = tokens.size() >= PARALLEL_THRESHOLD
+                ? validateInChunks(tokens)
+                : validateRange(tokens, 0, tokens.size());
+
+        int valid = (int) results.stream().filter(TokenValidationResponse::isValid).count();
+
+        return BatchTokenValidationResponse.builder()
+                .total(results.size())
+                .valid(valid)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Validate a single token without throwing
+     * @param index Position of the token in the request
+     * @param token Raw token or Authorization header value
+     * @return Claims of the token, or the reason it is invalid
+     */
+    public TokenValidationResponse validateToken(int index, String token) {
+        String rawToken = JwtAuthenticationFilter.resolveToken(token);
+        try {
+            TokenClaims claims = verifiedTokenCache.verify(rawToken != null ? rawToken : token);
+            return TokenValidationResponse.builder()
+                    .index(index)
+                    .valid(true)
+                    .userId(claims.userId())
+                    .email(claims.email())
+                    .role(claims.role())
+                    .tokenType(claims.type().name())
+                    .expiresAt(claims.expiresAt())
+                    .build();
+        } catch (ExpiredJwtException e) {
+            return invalid(index, "Token has expired");
+        } catch (JwtException | IllegalArgumentException e) {
+            return invalid(index, "Invalid token");
+        }
+    }
+
+    private List<TokenValidationResponse> validateInChunks(List<String> tokens) {
+        int chunkSize = Math.max(PARALLEL_THRESHOLD, (tokens.size() + poolSize - 1) / poolSize);
+        List<Future<List<TokenValidationResponse>>> chunks = new ArrayList<>();
+        try {
+            for (int from = 0; from < tokens.size(); from += chunkSize) {
+                int start = from;
+                int end = Math.min(from + chunkSize, tokens.size());
+                chunks.add(executor.submit(() -> validateRange(tokens, start, end)));
+            }
+        } catch (RejectedExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            log.warn("Token validation queue is full, rejecting batch of {} tokens", tokens.size());
+            throw new ServiceUnavailableException(
+                    "Too many token validation requests. Please retry shortly.", retryAfterSeconds);
+        }
+
+        List<TokenValidationResponse> results = new ArrayList<>(tokens.size());
+        try {
+            for (Future<List<TokenValidationResponse>> chunk : chunks) {
+                results.addAll(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating tokens", e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Token validation failed", e.getCause());
+        }
+        return results;
+    }
+
+    private List<TokenValidationResponse> validateRange(List<String> tokens, int from, int to) {
+        List<TokenValidationResponse> results = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            results.add(validateToken(i, tokens.get(i)));
+        }
+        return results;
+    }
+
+    private TokenValidationResponse invalid(int index, String error) {
+        return TokenValidationResponse.builder()
+                .index(index)
+                .valid(false)
+                .error(error)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
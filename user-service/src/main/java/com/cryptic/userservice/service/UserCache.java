@@ -0,0 +1,81 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.response.UserResponse;
+import com.cryptic.userservice.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Function;
+
+/**
+ * Read-through cache of UserResponse by id and by email
+ * Loads run inside the cache's per-key compute, and invalidation of a key waits for
+ * an in-flight load of that key, so a read racing a committed write can never leave
+ * the old value behind. Entries are dropped only after the writing transaction commits.
+ * Metrics are published as cache.gets / cache.evictions / cache.size with
+ * cache=users.by-id or users.by-email.
+ */
+@Component
+@Slf4j
+public class UserCache {
+
+    private final boolean enabled;
+    private final Cache<Long, UserResponse> byId;
+    private final Cache<String, UserResponse> byEmail;
+
+    public UserCache(UserCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "users.by-email");
+    }
+
+    /**
+     * @param loader Called on a miss; may return null when the user does not exist (not cached)
+     */
+    public UserResponse getById(Long id, Function<Long, UserResponse> loader) {
+        return enabled ? byId.get(id, loader) : loader.apply(id);
+    }
+
+    /**
+     * @param loader Called on a miss; may return null when the user does not exist (not cached)
+     */
+    public UserResponse getByEmail(String email, Function<String, UserResponse> loader) {
+        return enabled ? byEmail.get(email, loader) : loader.apply(email);
+    }
+
+    public void invalidate(Long userId, String email) {
+        byId.invalidate(userId);
+        if (email != null) {
+            byEmail.invalidate(email);
+        } else {
+            byEmail.asMap().values().removeIf(user -> userId.equals(user.getId()));
+        }
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byEmail.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        log.debug("Evicting cached user {}", event.userId());
+        invalidate(event.userId(), event.email());
+    }
+}
@@ -0,0 +1,26 @@
+package com.cryptic.userservice.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Local cache of user lookups (user-cache.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "user-cache")
+public class UserCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Entries are reloaded at most this long after they were cached
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Entries per cache (by id and by email); least recently used ones go first
+     */
+    private long maxSize = 100_000;
+}
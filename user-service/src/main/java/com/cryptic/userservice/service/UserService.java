@@ -1,63 +1,113 @@
 package com.cryptic.userservice.service;
 
 import com.cryptic.userservice.dto.request.ChangePasswordRequest;
+import com.cryptic.userservice.dto.request.IdBatchRequest;
 import com.cryptic.userservice.dto.request.UpdateUserRequest;
+import com.cryptic.userservice.dto.response.BatchLookupResponse;
+import com.cryptic.userservice.dto.response.CursorPageResponse;
 import com.cryptic.userservice.dto.response.UserResponse;
 import com.cryptic.userservice.entity.User;
+import com.cryptic.userservice.event.UserChangedEvent;
 import com.cryptic.userservice.exception.AuthenticationException;
 import com.cryptic.userservice.exception.DuplicateResourceException;
 import com.cryptic.userservice.exception.ResourceNotFoundException;
+import com.cryptic.userservice.exception.ValidationException;
 import com.cryptic.userservice.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.stereotype.Service;
-
-import lombok.RequiredArgsConstructor;
+import com.cryptic.userservice.security.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing User operations
  * Handles CRUD operations, password management, and user status updates
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserCache userCache;
+    private final SingleFlight<Long, UserResponse> userByIdLookups;
+    private final SingleFlight<String, UserResponse> userByEmailLookups;
+
+    public UserService(UserRepository userRepository,
+                       PasswordHashingService passwordHashingService,
+                       ApplicationEventPublisher eventPublisher,
+                       UserCache userCache,
+                       MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.eventPublisher = eventPublisher;
+        this.userCache = userCache;
+        this.userByIdLookups = new SingleFlight<>("users.by-id", meterRegistry);
+        this.userByEmailLookups = new SingleFlight<>("users.by-email", meterRegistry);
+    }
 
     /**
      * Get user by ID
+     * Served from the user cache when possible; concurrent calls for the same ID share one lookup
      * @param id User ID
      * @return UserResponse
      * @throws ResourceNotFoundException if user not found
      */
-    @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
-        log.info("Fetching user by ID: {}", id);
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        return mapToResponse(user);
+        log.debug("Fetching user by ID: {}", id);
+        UserResponse user = userByIdLookups.execute(id, () -> userCache.getById(id,
+                key -> userRepository.findById(key).map(this::mapToResponse).orElse(null)));
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found with id: " + id);
+        }
+        return user;
     }
 
     /**
      * Get user by email
+     * Served from the user cache when possible; concurrent calls for the same email share one lookup
      * @param email User email
      * @return UserResponse
      * @throws ResourceNotFoundException if user not found
      */
-    @Transactional(readOnly = true)
     public UserResponse getUserByEmail(String email) {
-        log.info("Fetching user by email: {}", email);
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
-        return mapToResponse(user);
+        log.debug("Fetching user by email: {}", email);
+        UserResponse user = userByEmailLookups.execute(email, () -> userCache.getByEmail(email,
+                key -> userRepository.findByEmail(key).map(this::mapToResponse).orElse(null)));
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found with email: " + email);
+        }
+        return user;
+    }
+
+    /**
+     * Get many users by ID with one query
+     * @param ids User IDs; duplicates are allowed
+     * @return Users in request order, with null and an entry in missingIds for each unknown ID
+     * @throws ValidationException if the list is empty, too long or contains null
+     */
+    @Transactional(readOnly = true)
+    public BatchLookupResponse<UserResponse> getUsersByIds(List<Long> ids) {
+        IdBatchRequest.validateIds(ids);
+        log.info("Fetching {} users by ID", ids.size());
+
+        Map<Long, UserResponse> byId = userRepository.findResponsesByIdIn(new HashSet<>(ids)).stream()
+                .collect(Collectors.toMap(UserResponse::getId, Function.identity()));
+        return BatchLookupResponse.of(ids, byId);
     }
 
     /**
@@ -72,6 +122,36 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get one page of users using keyset pagination on id
+     * Cost does not grow with the page number, unlike OFFSET paging
+     * @param after Last id of the previous page (null for the first page)
+     * @param size Page size, clamped to 1..MAX_PAGE_SIZE
+     * @return Page of UserResponse with the cursor for the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<UserResponse> getUsersPage(Long after, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        log.info("Fetching users page after {} (size {})", after, pageSize);
+
+        List<UserResponse> rows = userRepository.findResponsesAfter(
+                after != null ? after : 0L, Limit.of(pageSize + 1));
+        return CursorPageResponse.of(rows, pageSize, UserResponse::getId);
+    }
+
+    /**
+     * Stream all users to a consumer without loading them all into memory
+     * Rows are read through a database cursor and never enter the persistence context
+     * @param consumer Receives each user in id order
+     */
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserResponse> consumer) {
+        log.info("Streaming all users");
+        try (Stream<UserResponse> users = userRepository.streamAllResponses()) {
+            users.forEach(consumer);
+        }
+    }
+
     /**
      * Get users by role
      * @param role User role (CUSTOMER, DRIVER, ADMIN)
@@ -118,6 +198,7 @@ public class UserService {
         }
 
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(id, user.getEmail()));
         log.info("User updated successfully: {}", id);
 
         return mapToResponse(user);
@@ -125,12 +206,13 @@ public class UserService {
 
     /**
      * Change user password
+     * Not transactional: both BCrypt operations run with no connection held, and the
+     * new hash is written with a conditional update so a concurrent change is not overwritten
      * @param id User ID
      * @param request Change password request with current and new password
      * @throws ResourceNotFoundException if user not found
      * @throws AuthenticationException if current password is incorrect
      */
-    @Transactional
     public void changePassword(Long id, ChangePasswordRequest request) {
         log.info("Changing password for user: {}", id);
 
@@ -138,15 +220,21 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
         // Verify current password
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getHashedPassword())) {
+        if (!passwordHashingService.matches(request.getCurrentPassword(), user.getHashedPassword())) {
             log.warn("Password change failed for user {}: incorrect current password", id);
             throw new AuthenticationException("Current password is incorrect");
         }
 
         // Hash and save new password
-        String hashedNewPassword = passwordEncoder.encode(request.getNewPassword());
-        user.setHashedPassword(hashedNewPassword);
-        userRepository.save(user);
+        String hashedNewPassword = passwordHashingService.encode(request.getNewPassword());
+        int updated = userRepository.updateHashedPassword(
+                id, user.getHashedPassword(), hashedNewPassword, LocalDateTime.now());
+
+        if (updated == 0) {
+            log.warn("Password change failed for user {}: password changed concurrently", id);
+            throw new AuthenticationException("Current password is incorrect");
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(id, user.getEmail()));
 
         log.info("Password changed successfully for user: {}", id);
     }
@@ -166,6 +254,7 @@ public class UserService {
 
         user.setStatus(status);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(id, user.getEmail()));
 
         log.info("User status updated successfully for user: {}", id);
     }
@@ -179,11 +268,11 @@ public class UserService {
     public void deleteUser(Long id) {
         log.info("Deleting user with ID: {}", id);
 
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
-        userRepository.deleteById(id);
+        userRepository.delete(user);
+        eventPublisher.publishEvent(new UserChangedEvent(id, user.getEmail()));
         log.info("User deleted successfully: {}", id);
     }
 
@@ -25,6 +25,11 @@ CREATE TABLE drivers (
                          current_order_id BIGINT,
                          rating DECIMAL(3,2) DEFAULT 5.0,
                          total_deliveries INT DEFAULT 0,
+                         rating_sum DOUBLE PRECISION DEFAULT 0,
+                         rating_count BIGINT DEFAULT 0,
+                         latitude DOUBLE PRECISION,
+                         longitude DOUBLE PRECISION,
+                         location_updated_at TIMESTAMP,
                          created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                          updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
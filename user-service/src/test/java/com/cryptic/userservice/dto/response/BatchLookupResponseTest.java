@@ -0,0 +1,33 @@
+package com.cryptic.userservice.dto.response;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchLookupResponseTest {
+
+    @Test
+    void resultsFollowRequestOrderWithNullsForMissingIds() {
+        Map<Long, String> byId = Map.of(1L, "one", 3L, "three");
+
+        BatchLookupResponse<String> response = BatchLookupResponse.of(List.of(3L, 2L, 1L, 3L, 9L), byId);
+
+        assertThat(response.getResults()).containsExactly("three", null, "one", "three", null);
+        assertThat(response.getMissingIds()).containsExactly(2L, 9L);
+        assertThat(response.getTotal()).isEqualTo(5);
+        assertThat(response.getFound()).isEqualTo(3);
+    }
+
+    @Test
+    void nothingFound() {
+        BatchLookupResponse<String> response = BatchLookupResponse.of(List.of(5L, 6L), Map.of());
+
+        assertThat(response.getResults()).isEqualTo(Arrays.asList(null, null));
+        assertThat(response.getMissingIds()).containsExactly(5L, 6L);
+        assertThat(response.getFound()).isZero();
+    }
+}
@@ -0,0 +1,72 @@
+package com.cryptic.userservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static final String LEGACY_SECRET = "legacy-secret-used-only-in-this-test-0123456789";
+    private static final Instant CUTOFF = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void rsaTokensVerify() {
+        JwtUtil jwtUtil = jwtUtil(false);
+        String token = jwtUtil.generateAccessToken(42L, "mike@example.com", "DRIVER");
+
+        assertThat(jwtUtil.parseToken(token).userId()).isEqualTo(42L);
+    }
+
+    @Test
+    void legacyTokensAreRejectedByDefault() {
+        JwtUtil jwtUtil = jwtUtil(false);
+
+        assertThatThrownBy(() -> jwtUtil.extractClaims(legacyToken(CUTOFF.minus(1, ChronoUnit.HOURS))))
+                .isInstanceOf(UnsupportedJwtException.class);
+    }
+
+    @Test
+    void legacyTokensVerifyOnlyWhenIssuedBeforeTheCutoff() {
+        JwtUtil jwtUtil = jwtUtil(true);
+
+        assertThat(jwtUtil.extractClaims(legacyToken(CUTOFF.minus(1, ChronoUnit.HOURS))).getSubject())
+                .isEqualTo("42");
+        assertThatThrownBy(() -> jwtUtil.extractClaims(legacyToken(CUTOFF.plus(1, ChronoUnit.MINUTES))))
+                .isInstanceOf(UnsupportedJwtException.class);
+    }
+
+    private static JwtUtil jwtUtil(boolean legacyEnabled) {
+        JwtSigningProperties signing = new JwtSigningProperties();
+        signing.setAllowEphemeralKey(true);
+        JwtUtil jwtUtil = new JwtUtil(new JwtKeyRing(signing));
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshTokenExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "legacyEnabled", legacyEnabled);
+        ReflectionTestUtils.setField(jwtUtil, "legacySecret", LEGACY_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "legacyIssuedBefore", CUTOFF.toString());
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    /**
+     * HS256 token without a kid header, as issued before the RS256 switch; expiry is far in the future
+     */
+    private static String legacyToken(Instant issuedAt) {
+        return Jwts.builder()
+                .subject("42")
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(Instant.now().plus(1, ChronoUnit.DAYS)))
+                .signWith(Keys.hmacShaKeyFor(LEGACY_SECRET.getBytes(StandardCharsets.UTF_8)), Jwts.SIG.HS256)
+                .compact();
+    }
+}
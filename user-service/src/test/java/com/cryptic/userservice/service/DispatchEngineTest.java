@@ -0,0 +1,218 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.request.DispatchOrderRequest;
+import com.cryptic.userservice.dto.response.DispatchStatusResponse;
+import com.cryptic.userservice.entity.Driver;
+import com.cryptic.userservice.entity.User;
+import com.cryptic.userservice.repository.DriverJdbcRepository;
+import com.cryptic.userservice.repository.DriverRepository;
+import com.cryptic.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Several dispatch workers match more orders than there are drivers
+ * The availability index is loaded once and never refreshed, so workers keep seeing
+ * drivers that are already taken; only the claim set and the conditional UPDATE stand
+ * between them and a double assignment. Orders left over must go through the retry
+ * path and end UNMATCHED.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({DriverService.class, DriverAvailabilityIndex.class, DriverSpatialIndex.class, DriverLeaderboard.class,
+        DriverLocationBuffer.class, DriverLocationProperties.class, DriverJdbcRepository.class, DriverRatingAggregator.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DispatchEngineTest {
+
+    private static final int DRIVERS = 10;
+    private static final int ORDERS = 40;
+    private static final int WORKERS = 4;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private DriverService driverService;
+
+    @Autowired
+    private DriverAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private DriverSpatialIndex spatialIndex;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DispatchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < DRIVERS; i++) {
+            User user = userRepository.save(User.builder()
+                    .name("Dispatch Driver " + i)
+                    .email("dispatch" + i + "@example.com")
+                    .phone("+300000000" + i)
+                    .hashedPassword("hash")
+                    .role(User.Role.DRIVER)
+                    .status(User.UserStatus.ACTIVE)
+                    .build());
+            driverRepository.save(Driver.builder()
+                    .userId(user.getId())
+                    .licenseNo("DISPATCH-" + i)
+                    .status(Driver.DriverStatus.ONLINE)
+                    .build());
+        }
+        availabilityIndex.rebuild(driverRepository.findAllResponses(), availabilityIndex.currentSequence());
+
+        engine = new DispatchEngine(driverService, availabilityIndex, spatialIndex, properties(MAX_ATTEMPTS, 10),
+                meterRegistry);
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+        driverRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void eachDriverGetsAtMostOneOrderAndLeftoversEndUnmatched() throws Exception {
+        List<DispatchOrderRequest> orders = new ArrayList<>();
+        for (long orderId = 1; orderId <= ORDERS; orderId++) {
+            orders.add(DispatchOrderRequest.builder().orderId(orderId).build());
+        }
+        assertThat(engine.submit(orders).getQueued()).isEqualTo(ORDERS);
+
+        List<DispatchStatusResponse> results = awaitFinished(orders);
+
+        Map<Long, Long> orderByDriver = new HashMap<>();
+        int unmatched = 0;
+        for (DispatchStatusResponse result : results) {
+            if (result.getState() == DispatchStatusResponse.State.ASSIGNED) {
+                assertThat(orderByDriver.put(result.getDriverId(), result.getOrderId()))
+                        .as("driver %d assigned twice", result.getDriverId())
+                        .isNull();
+            } else {
+                assertThat(result.getState()).isEqualTo(DispatchStatusResponse.State.UNMATCHED);
+                assertThat(result.getDriverId()).isNull();
+                assertThat(result.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+                unmatched++;
+            }
+        }
+        assertThat(orderByDriver).hasSize(DRIVERS);
+        assertThat(unmatched).isEqualTo(ORDERS - DRIVERS);
+        assertThat(meterRegistry.get("dispatch.orders").tag("result", "retried").counter().count()).isPositive();
+
+        for (Map.Entry<Long, Long> assignment : orderByDriver.entrySet()) {
+            Driver driver = driverRepository.findById(assignment.getKey()).orElseThrow();
+            assertThat(driver.getStatus()).isEqualTo(Driver.DriverStatus.BUSY);
+            assertThat(driver.getCurrentOrderId()).isEqualTo(assignment.getValue());
+        }
+    }
+
+    @Test
+    void ordersWhoseAssignmentThrowsAreRetriedAndEndUnmatched() throws Exception {
+        engine.stop();
+        DriverService failing = mock(DriverService.class);
+        when(failing.tryAssignOrder(any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection pool exhausted"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        engine = new DispatchEngine(failing, availabilityIndex, spatialIndex, properties(MAX_ATTEMPTS, 10), registry);
+        engine.start();
+
+        List<DispatchOrderRequest> orders = List.of(
+                DispatchOrderRequest.builder().orderId(1L).build(),
+                DispatchOrderRequest.builder().orderId(2L).build());
+        engine.submit(orders);
+
+        for (DispatchStatusResponse result : awaitFinished(orders)) {
+            assertThat(result.getState()).isEqualTo(DispatchStatusResponse.State.UNMATCHED);
+            assertThat(result.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        }
+        assertThat(registry.get("dispatch.claim.failed").counter().count()).isEqualTo(orders.size() * MAX_ATTEMPTS);
+    }
+
+    @Test
+    void assignmentThatCommittedDespiteAnErrorIsNotRetried() throws Exception {
+        engine.stop();
+        DriverService failing = mock(DriverService.class);
+        when(failing.tryAssignOrder(any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset after commit"));
+        when(failing.hasCurrentOrder(any(), any())).thenReturn(true);
+        engine = new DispatchEngine(failing, availabilityIndex, spatialIndex, properties(MAX_ATTEMPTS, 10), meterRegistry);
+        engine.start();
+
+        List<DispatchOrderRequest> orders = List.of(DispatchOrderRequest.builder().orderId(1L).build());
+        engine.submit(orders);
+
+        DispatchStatusResponse result = awaitFinished(orders).get(0);
+        assertThat(result.getState()).isEqualTo(DispatchStatusResponse.State.ASSIGNED);
+        assertThat(result.getAttempts()).isEqualTo(1);
+        verify(failing, times(1)).tryAssignOrder(any(), any());
+    }
+
+    @Test
+    void ordersWaitingForRetryCountAgainstQueueCapacity() {
+        engine.stop();
+        DriverService failing = mock(DriverService.class);
+        when(failing.tryAssignOrder(any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection pool exhausted"));
+        DispatchProperties properties = properties(MAX_ATTEMPTS, 60_000);
+        properties.setQueueCapacity(2);
+        engine = new DispatchEngine(failing, availabilityIndex, spatialIndex, properties, meterRegistry);
+        engine.start();
+
+        engine.submit(List.of(
+                DispatchOrderRequest.builder().orderId(1L).build(),
+                DispatchOrderRequest.builder().orderId(2L).build()));
+
+        assertThat(engine.submit(List.of(DispatchOrderRequest.builder().orderId(3L).build())).getRejectedOrderIds())
+                .containsExactly(3L);
+    }
+
+    private static DispatchProperties properties(int maxAttempts, long retryDelayMs) {
+        DispatchProperties properties = new DispatchProperties();
+        properties.setWorkers(WORKERS);
+        properties.setMaxAttempts(maxAttempts);
+        properties.setRetryDelayMs(retryDelayMs);
+        return properties;
+    }
+
+    private List<DispatchStatusResponse> awaitFinished(List<DispatchOrderRequest> orders) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (true) {
+            List<DispatchStatusResponse> results = orders.stream()
+                    .map(order -> engine.getStatus(order.getOrderId()).orElseThrow())
+                    .toList();
+            boolean finished = results.stream().allMatch(result -> result.getFinishedAt() != null);
+            if (finished || System.nanoTime() > deadline) {
+                return results;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.request.OrderAssignment;
+import com.cryptic.userservice.dto.request.UpdateDriverStatusRequest;
+import com.cryptic.userservice.dto.response.BulkAssignOrderResponse;
+import com.cryptic.userservice.dto.response.OrderAssignmentResult;
+import com.cryptic.userservice.entity.Driver;
+import com.cryptic.userservice.entity.User;
+import com.cryptic.userservice.repository.DriverJdbcRepository;
+import com.cryptic.userservice.exception.DriverUnavailableException;
+import com.cryptic.userservice.exception.ResourceNotFoundException;
+import com.cryptic.userservice.repository.DriverRepository;
+import com.cryptic.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Many dispatchers race for a small pool of drivers; every driver must end up with exactly one order
+ * and no concurrent completion may be lost
+ * Runs without a test transaction so each assignment really commits
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({DriverService.class, DriverAvailabilityIndex.class, DriverSpatialIndex.class, DriverLeaderboard.class,
+        DriverLocationBuffer.class, DriverLocationProperties.class, DriverJdbcRepository.class, DriverRatingAggregator.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DriverAssignmentConcurrencyTest {
+
+    private static final int DRIVERS = 20;
+    private static final int DISPATCHERS = 8;
+    private static final int ORDERS = 400;
+
+    @Autowired
+    private DriverService driverService;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> driverIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < DRIVERS; i++) {
+            User user = userRepository.save(User.builder()
+                    .name("Driver " + i)
+                    .email("racer" + i + "@example.com")
+                    .phone("+200000000" + i)
+                    .hashedPassword("hash")
+                    .role(User.Role.DRIVER)
+                    .status(User.UserStatus.ACTIVE)
+                    .build());
+            Driver driver = driverRepository.save(Driver.builder()
+                    .userId(user.getId())
+                    .licenseNo("RACE-" + i)
+                    .status(Driver.DriverStatus.ONLINE)
+                    .build());
+            driverIds.add(driver.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        driverRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentAssignmentsNeverDoubleBook() throws Exception {
+        Map<Long, Long> winners = new ConcurrentHashMap<>();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger doubleBooked = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(DISPATCHERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int order = 1; order <= ORDERS; order++) {
+            long orderId = order;
+            Long driverId = driverIds.get(order % DRIVERS);
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    driverService.assignOrderToDriver(driverId, orderId);
+                    if (winners.putIfAbsent(driverId, orderId) != null) {
+                        doubleBooked.incrementAndGet();
+                    }
+                } catch (DriverUnavailableException ex) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(doubleBooked).hasValue(0);
+        assertThat(winners).hasSize(DRIVERS);
+        assertThat(conflicts).hasValue(ORDERS - DRIVERS);
+        for (Long driverId : driverIds) {
+            Driver driver = driverRepository.findById(driverId).orElseThrow();
+            assertThat(driver.getStatus()).isEqualTo(Driver.DriverStatus.BUSY);
+            assertThat(driver.getCurrentOrderId()).isEqualTo(winners.get(driverId));
+        }
+    }
+
+    @Test
+    void concurrentStatusUpdatesKeepAssignedOrders() throws Exception {
+        int statusUpdatesPerDriver = 10;
+        UpdateDriverStatusRequest online = UpdateDriverStatusRequest.builder()
+                .status(Driver.DriverStatus.ONLINE)
+                .build();
+        Map<Long, Long> assigned = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(DISPATCHERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < DRIVERS; i++) {
+            Long driverId = driverIds.get(i);
+            long orderId = 1000L + i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                if (driverService.tryAssignOrder(driverId, orderId)) {
+                    assigned.put(driverId, orderId);
+                }
+                return null;
+            }));
+            for (int j = 0; j < statusUpdatesPerDriver; j++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    driverService.updateDriverStatus(driverId, online);
+                    return null;
+                }));
+            }
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Status updates keep every driver ONLINE, so each assignment must win and survive them
+        assertThat(assigned).hasSize(DRIVERS);
+        for (Map.Entry<Long, Long> assignment : assigned.entrySet()) {
+            Driver driver = driverRepository.findById(assignment.getKey()).orElseThrow();
+            assertThat(driver.getCurrentOrderId()).isEqualTo(assignment.getValue());
+        }
+    }
+
+    @Test
+    void assignmentToMissingOrOfflineDriverIsRejected() {
+        assertThatThrownBy(() -> driverService.assignOrderToDriver(Long.MAX_VALUE, 1L))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        Driver driver = driverRepository.findById(driverIds.get(0)).orElseThrow();
+        driver.setStatus(Driver.DriverStatus.OFFLINE);
+        driverRepository.save(driver);
+
+        assertThatThrownBy(() -> driverService.assignOrderToDriver(driver.getId(), 1L))
+                .isInstanceOf(DriverUnavailableException.class);
+    }
+
+    @Test
+    void bulkAssignmentReportsOutcomePerPair() {
+        Long first = driverIds.get(0);
+        Long second = driverIds.get(1);
+
+        BulkAssignOrderResponse response = driverService.assignOrders(List.of(
+                new OrderAssignment(first, 100L),
+                new OrderAssignment(first, 101L),
+                new OrderAssignment(Long.MAX_VALUE, 102L),
+                new OrderAssignment(second, 103L)));
+
+        assertThat(response.getAssigned()).isEqualTo(2);
+        assertThat(response.getResults())
+                .extracting(OrderAssignmentResult::getResult)
+                .containsExactly(OrderAssignmentResult.Outcome.ASSIGNED, OrderAssignmentResult.Outcome.CONFLICT,
+                        OrderAssignmentResult.Outcome.NOT_FOUND, OrderAssignmentResult.Outcome.ASSIGNED);
+        assertThat(driverRepository.findById(first).orElseThrow().getCurrentOrderId()).isEqualTo(100L);
+        assertThat(driverRepository.findById(second).orElseThrow().getStatus()).isEqualTo(Driver.DriverStatus.BUSY);
+    }
+
+    @Test
+    void concurrentCompletionsNeverLoseDeliveries() throws Exception {
+        Long driverId = driverIds.get(0);
+        int completions = 100;
+
+        ExecutorService pool = Executors.newFixedThreadPool(DISPATCHERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < completions; i++) {
+            futures.add(pool.submit(() -> driverService.completeOrder(driverId)));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        Driver driver = driverRepository.findById(driverId).orElseThrow();
+        assertThat(driver.getTotalDeliveries()).isEqualTo(completions);
+        assertThat(driver.getStatus()).isEqualTo(Driver.DriverStatus.ONLINE);
+        assertThat(driver.getCurrentOrderId()).isNull();
+    }
+}
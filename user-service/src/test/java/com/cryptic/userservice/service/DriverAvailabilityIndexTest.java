@@ -0,0 +1,102 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.response.DriverResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DriverAvailabilityIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    void olderReloadDoesNotReplaceNewerSnapshot() {
+        DriverAvailabilityIndex index = new DriverAvailabilityIndex();
+        index.upsert(driver("BUSY", 7L, T0.plusSeconds(5)));
+
+        DriverResponse effective = index.upsert(driver("ONLINE", null, T0));
+
+        assertThat(effective.getStatus()).isEqualTo("BUSY");
+        assertThat(index.get(1L)).get().extracting(DriverResponse::getCurrentOrderId).isEqualTo(7L);
+        assertThat(index.getAvailable()).isEmpty();
+    }
+
+    @Test
+    void reloadKeepsNewerIngestedPosition() {
+        DriverAvailabilityIndex index = new DriverAvailabilityIndex();
+        index.upsert(driver("ONLINE", null, T0));
+        index.updateLocation(1L, 13.0, 78.0, T0.plusSeconds(10));
+
+        // Row re-read by assignOrder before the flusher wrote the ping
+        DriverResponse row = driver("BUSY", 7L, T0.plusSeconds(20));
+        DriverResponse effective = index.upsert(row);
+
+        assertThat(effective.getStatus()).isEqualTo("BUSY");
+        assertThat(effective.getLatitude()).isEqualTo(13.0);
+        assertThat(effective.getLongitude()).isEqualTo(78.0);
+        assertThat(effective.getLocationUpdatedAt()).isEqualTo(T0.plusSeconds(10));
+    }
+
+    @Test
+    void reloadTakesPositionWhenRowIsNewer() {
+        DriverAvailabilityIndex index = new DriverAvailabilityIndex();
+        index.upsert(driver("ONLINE", null, T0));
+
+        DriverResponse row = driver("ONLINE", null, T0.plusSeconds(20)).toBuilder()
+                .latitude(14.0)
+                .longitude(79.0)
+                .locationUpdatedAt(T0.plusSeconds(20))
+                .build();
+
+        assertThat(index.upsert(row).getLatitude()).isEqualTo(14.0);
+    }
+
+    @Test
+    void rebuildKeepsDriversChangedAfterSnapshotWasRead() {
+        DriverAvailabilityIndex index = new DriverAvailabilityIndex();
+        index.upsert(driver("ONLINE", null, T0));
+        DriverResponse removed = driver("ONLINE", null, T0).toBuilder().id(3L).userId(300L).build();
+        index.upsert(removed);
+
+        long since = index.currentSequence();
+        List<DriverResponse> snapshot = List.of(driver("ONLINE", null, T0), removed);
+        // Applied while the snapshot was being read: a new driver and a deleted one
+        DriverResponse created = driver("ONLINE", null, T0).toBuilder().id(2L).userId(200L).build();
+        index.upsert(created);
+        index.remove(3L);
+
+        List<DriverResponse> effective = index.rebuild(snapshot, since);
+
+        assertThat(index.get(2L)).contains(created);
+        assertThat(index.get(3L)).isEmpty();
+        assertThat(effective).extracting(DriverResponse::getId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.getAvailable()).extracting(DriverResponse::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void rebuildRemovesDriversMissingFromSnapshot() {
+        DriverAvailabilityIndex index = new DriverAvailabilityIndex();
+        index.upsert(driver("ONLINE", null, T0));
+
+        index.rebuild(List.of(), index.currentSequence());
+
+        assertThat(index.size()).isZero();
+        assertThat(index.getAvailable()).isEmpty();
+    }
+
+    private static DriverResponse driver(String status, Long currentOrderId, LocalDateTime updatedAt) {
+        return DriverResponse.builder()
+                .id(1L)
+                .userId(100L)
+                .status(status)
+                .currentOrderId(currentOrderId)
+                .latitude(12.97)
+                .longitude(77.59)
+                .locationUpdatedAt(T0)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.response.DriverResponse;
+import com.cryptic.userservice.entity.Driver;
+import com.cryptic.userservice.entity.User;
+import com.cryptic.userservice.repository.DriverJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({DriverService.class, DriverAvailabilityIndex.class, DriverSpatialIndex.class, DriverLeaderboard.class,
+        DriverLocationBuffer.class, DriverLocationProperties.class, DriverJdbcRepository.class, DriverRatingAggregator.class,
+        SimpleMeterRegistry.class})
+class DriverServiceQueryCountTest {
+
+    private static final int DRIVERS = 6;
+
+    @Autowired
+    private DriverService driverService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < DRIVERS; i++) {
+            User user = User.builder()
+                    .name("Driver " + i)
+                    .email("driver" + i + "@example.com")
+                    .phone("+100000000" + i)
+                    .hashedPassword("hash")
+                    .role(User.Role.DRIVER)
+                    .status(User.UserStatus.ACTIVE)
+                    .build();
+            entityManager.persist(user);
+
+            Driver driver = Driver.builder()
+                    .userId(user.getId())
+                    .licenseNo("DL-" + i)
+                    .status(i % 2 == 0 ? Driver.DriverStatus.ONLINE : Driver.DriverStatus.OFFLINE)
+                    .rating(BigDecimal.valueOf(4.5))
+                    .totalDeliveries(i)
+                    .build();
+            entityManager.persist(driver);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getAllDriversUsesOneStatement() {
+        List<DriverResponse> drivers = countStatements(driverService::getAllDrivers, 1);
+
+        assertThat(drivers).hasSize(DRIVERS);
+        assertThat(drivers).allSatisfy(driver -> {
+            assertThat(driver.getName()).startsWith("Driver ");
+            assertThat(driver.getEmail()).endsWith("@example.com");
+            assertThat(driver.getRating()).isEqualTo(4.5);
+        });
+    }
+
+    @Test
+    void getDriversByStatusUsesOneStatement() {
+        List<DriverResponse> drivers = countStatements(
+                () -> driverService.getDriversByStatus(Driver.DriverStatus.OFFLINE), 1);
+
+        assertThat(drivers).hasSize(DRIVERS / 2);
+        assertThat(drivers).allSatisfy(driver -> assertThat(driver.getStatus()).isEqualTo("OFFLINE"));
+    }
+
+    @Test
+    void getAvailableDriversUsesOneStatement() {
+        List<DriverResponse> drivers = countStatements(driverService::getAvailableDrivers, 1);
+
+        assertThat(drivers).hasSize(DRIVERS / 2);
+        assertThat(drivers).allSatisfy(driver -> {
+            assertThat(driver.getStatus()).isEqualTo("ONLINE");
+            assertThat(driver.getPhone()).isNotNull();
+        });
+    }
+
+    private <T> T countStatements(Supplier<T> call, long expected) {
+        statistics.clear();
+        T result = call.get();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+        return result;
+    }
+}
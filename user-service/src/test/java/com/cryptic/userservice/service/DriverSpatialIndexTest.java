@@ -0,0 +1,111 @@
+package com.cryptic.userservice.service;
+
+import com.cryptic.userservice.dto.response.DriverResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DriverSpatialIndexTest {
+
+    @Test
+    void nearestMatchesBruteForce() {
+        DriverSpatialIndex index = new DriverSpatialIndex(0.01);
+        Random random = new Random(42);
+        List<DriverResponse> drivers = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            DriverResponse driver = available(id, 12.9 + random.nextDouble() * 0.2, 77.5 + random.nextDouble() * 0.2);
+            drivers.add(driver);
+            index.update(driver);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            double lat = 12.9 + random.nextDouble() * 0.2;
+            double lon = 77.5 + random.nextDouble() * 0.2;
+            double radius = 0.5 + random.nextDouble() * 5;
+
+            List<Long> expected = drivers.stream()
+                    .filter(d -> DriverSpatialIndex.haversineKm(lat, lon, d.getLatitude(), d.getLongitude()) <= radius)
+                    .sorted(Comparator.comparingDouble(
+                            d -> DriverSpatialIndex.haversineKm(lat, lon, d.getLatitude(), d.getLongitude())))
+                    .limit(7)
+                    .map(DriverResponse::getId)
+                    .toList();
+
+            assertThat(index.nearest(lat, lon, 7, radius))
+                    .extracting(DriverSpatialIndex.Match::driverId)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void busyOrUnlocatedDriversAreNotIndexed() {
+        DriverSpatialIndex index = new DriverSpatialIndex(0.01);
+        DriverResponse driver = available(1L, 12.97, 77.59);
+        index.update(driver);
+        assertThat(index.nearest(12.97, 77.59, 5, 1)).hasSize(1);
+
+        driver.setStatus("BUSY");
+        driver.setCurrentOrderId(9L);
+        index.update(driver);
+        assertThat(index.nearest(12.97, 77.59, 5, 1)).isEmpty();
+
+        index.update(available(2L, 12.97, 77.59));
+        DriverResponse moved = available(2L, 12.99, 77.61);
+        index.update(moved);
+        assertThat(index.nearest(12.97, 77.59, 5, 1)).isEmpty();
+        assertThat(index.nearest(12.99, 77.61, 5, 1)).extracting(DriverSpatialIndex.Match::driverId).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentMovesAndRemovalsKeepEveryDriverFindable() throws Exception {
+        DriverSpatialIndex index = new DriverSpatialIndex(0.01);
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (long id = 1; id <= threads; id++) {
+            long driverId = id;
+            // One driver per thread, all sharing two cells, so cells keep emptying and refilling
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20_000; i++) {
+                    if (i % 3 == 0) {
+                        index.remove(driverId);
+                    }
+                    index.put(driverId, i % 2 == 0 ? 12.975 : 12.985, 77.595);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(index.size()).isEqualTo(threads);
+        assertThat(index.nearest(12.98, 77.595, threads, 5))
+                .extracting(DriverSpatialIndex.Match::driverId)
+                .containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    private static DriverResponse available(Long id, double lat, double lon) {
+        return DriverResponse.builder()
+                .id(id)
+                .status("ONLINE")
+                .latitude(lat)
+                .longitude(lon)
+                .build();
+    }
+}